@@ -0,0 +1,101 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Creates the table of the number of times each answer has been chosen, maintained by QuizzAnswerStats,
+ * and fills it from the existing plays. The answers stored in the answers_encoded column of the plays
+ * are decoded as AnswerIdsCodec does, which is why this migration is written in Java. The decoder is copied into
+ * the migration rather than called, so that a later change of the codec cannot change what this migration reads.
+ */
+public class V10__Quizz_answer_stats extends BaseJavaMigration {
+
+	private static final int FETCH_SIZE = 1000;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection connection = context.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS mytimeacty.quizz_answer_stats ("
+					+ "id_answer INTEGER PRIMARY KEY REFERENCES mytimeacty.quizz_answers (id_answer), "
+					+ "pick_count BIGINT NOT NULL DEFAULT 0)");
+
+			// Answers stored as rows
+			statement.execute("INSERT INTO mytimeacty.quizz_answer_stats (id_answer, pick_count) "
+					+ "SELECT id_answer, COUNT(*) FROM mytimeacty.user_answers GROUP BY id_answer "
+					+ "ON CONFLICT (id_answer) DO UPDATE SET pick_count = EXCLUDED.pick_count");
+		}
+
+		// Answers stored encoded, counted in memory: one entry per answer, whatever the number of plays
+		Map<Integer, Long> counts = new HashMap<>();
+		try (Statement select = connection.createStatement()) {
+			select.setFetchSize(FETCH_SIZE);
+			try (ResultSet rows = select.executeQuery(
+					"SELECT answers_encoded FROM mytimeacty.quizz_play WHERE answers_encoded IS NOT NULL")) {
+				while (rows.next()) {
+					for (int answerId : decode(rows.getBytes(1))) {
+						counts.merge(answerId, 1L, Long::sum);
+					}
+				}
+			}
+		}
+
+		try (PreparedStatement upsert = connection.prepareStatement(
+				"INSERT INTO mytimeacty.quizz_answer_stats (id_answer, pick_count) VALUES (?, ?) "
+				+ "ON CONFLICT (id_answer) DO UPDATE SET pick_count = quizz_answer_stats.pick_count + EXCLUDED.pick_count")) {
+			int pending = 0;
+			for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+				upsert.setInt(1, entry.getKey());
+				upsert.setLong(2, entry.getValue());
+				upsert.addBatch();
+				if (++pending == FETCH_SIZE) {
+					upsert.executeBatch();
+					pending = 0;
+				}
+			}
+			if (pending > 0) {
+				upsert.executeBatch();
+			}
+		}
+	}
+
+	/**
+	 * Decoder of AnswerIdsCodec as it was when V8__Encode_user_answers was written, the format of answers_encoded.
+	 * Package-private so that a test checks it still matches AnswerIdsCodec.
+	 */
+	static int[] decode(byte[] encoded) {
+		int[] position = { 0 };
+		int count = readVarInt(encoded, position);
+		int[] answerIds = new int[count];
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			int zigzag = readVarInt(encoded, position);
+			previous += (zigzag >>> 1) ^ -(zigzag & 1);
+			answerIds[i] = previous;
+		}
+		return answerIds;
+	}
+
+	private static int readVarInt(byte[] encoded, int[] position) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (position[0] >= encoded.length) {
+				throw new IllegalArgumentException("Truncated encoded answers");
+			}
+			byte b = encoded[position[0]++];
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed encoded answers");
+	}
+}
@@ -0,0 +1,116 @@
+package db.migration;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Adds the answers_encoded column to the quizz plays and moves the existing user_answers rows into it.
+ * The encoding is the one of AnswerIdsCodec, which is why this migration is written in Java. It is copied into
+ * the migration rather than called, so that a later change of the codec cannot change what this migration writes.
+ *
+ * user_answers has no index on id_quizz_play, so it is read in a single ordered pass through a server-side cursor
+ * and grouped by play here, the plays being updated in batches. The rows are then dropped at once with TRUNCATE,
+ * which leaves no dead tuples behind.
+ */
+public class V8__Encode_user_answers extends BaseJavaMigration {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection connection = context.getConnection();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ALTER TABLE mytimeacty.quizz_play ADD COLUMN IF NOT EXISTS answers_encoded BYTEA");
+		}
+
+		try (Statement select = connection.createStatement();
+			 PreparedStatement update = connection.prepareStatement(
+					"UPDATE mytimeacty.quizz_play SET answers_encoded = ? WHERE id_quizz_play = ?")) {
+			// Streamed rather than loaded at once, the migration runs in a transaction so the cursor is kept open
+			select.setFetchSize(BATCH_SIZE);
+
+			int pending = 0;
+			int currentPlayId = 0;
+			List<Integer> answerIds = new ArrayList<>();
+			try (ResultSet rows = select.executeQuery(
+					"SELECT id_quizz_play, id_answer FROM mytimeacty.user_answers ORDER BY id_quizz_play, id_answer")) {
+				while (rows.next()) {
+					int playId = rows.getInt(1);
+					if (playId != currentPlayId && !answerIds.isEmpty()) {
+						addUpdate(update, currentPlayId, answerIds);
+						answerIds.clear();
+						if (++pending == BATCH_SIZE) {
+							update.executeBatch();
+							pending = 0;
+						}
+					}
+					currentPlayId = playId;
+					answerIds.add(rows.getInt(2));
+				}
+			}
+			if (!answerIds.isEmpty()) {
+				addUpdate(update, currentPlayId, answerIds);
+				pending++;
+			}
+			if (pending > 0) {
+				update.executeBatch();
+			}
+		}
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("TRUNCATE mytimeacty.user_answers");
+		}
+	}
+
+	private static void addUpdate(PreparedStatement update, int playId, List<Integer> answerIds) throws SQLException {
+		update.setBytes(1, encode(toIntArray(answerIds)));
+		update.setInt(2, playId);
+		update.addBatch();
+	}
+
+	private static int[] toIntArray(List<Integer> values) {
+		int[] result = new int[values.size()];
+		for (int i = 0; i < values.size(); i++) {
+			result[i] = values.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Encoder of AnswerIdsCodec as it was when this migration was written: the count of the sorted IDs,
+	 * then the zigzag-encoded differences between consecutive IDs, each one as a variable-length integer.
+	 * Package-private so that a test checks it still matches AnswerIdsCodec.
+	 */
+	static byte[] encode(int[] answerIds) {
+		int[] sorted = answerIds.clone();
+		Arrays.sort(sorted);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length + 5);
+		writeVarInt(out, sorted.length);
+		int previous = 0;
+		for (int answerId : sorted) {
+			int delta = answerId - previous;
+			writeVarInt(out, (delta << 1) ^ (delta >> 31));
+			previous = answerId;
+		}
+		return out.toByteArray();
+	}
+
+	private static void writeVarInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+}
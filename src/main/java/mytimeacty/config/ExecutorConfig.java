@@ -0,0 +1,84 @@
+package mytimeacty.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+	
+	@Value("${bcrypt.executor.threads:0}")
+	private int bcryptThreads;
+	
+	@Value("${bcrypt.executor.queue-capacity:64}")
+	private int bcryptQueueCapacity;
+
+	/**
+	 * Provides the executor running the BCrypt hashing and verification work.
+	 * 
+	 * Its pool and queue are bounded so that a burst of logins cannot take every request thread.
+	 * Tasks submitted while the queue is full are rejected right away.
+	 * 
+	 * @return a ThreadPoolExecutor dedicated to password hashing.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	ThreadPoolExecutor passwordHashingExecutor() {
+		int threads = bcryptThreads > 0 ? bcryptThreads : Runtime.getRuntime().availableProcessors();
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(bcryptQueueCapacity),
+				namedThreadFactory("bcrypt-"),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	/**
+	 * Provides the single thread sending the mails of the outbox.
+	 * 
+	 * Its queue holds one drain at most: a drain scheduled while another one is still waiting is discarded,
+	 * since the waiting one will pick up the same mails.
+	 * 
+	 * @return a ThreadPoolExecutor dedicated to mail dispatching.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	ThreadPoolExecutor mailDispatchExecutor() {
+		return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(1),
+				namedThreadFactory("mail-outbox-"),
+				new ThreadPoolExecutor.DiscardPolicy());
+	}
+	
+	/**
+	 * Provides the single thread writing the quizz plays queued by the write-behind pipeline.
+	 * 
+	 * Like the mail dispatch, its queue holds one flush at most, since a waiting flush writes everything queued.
+	 * 
+	 * @return a ThreadPoolExecutor dedicated to the quizz play flushes.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	ThreadPoolExecutor quizzPlayFlushExecutor() {
+		return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(1),
+				namedThreadFactory("quizz-play-flush-"),
+				new ThreadPoolExecutor.DiscardPolicy());
+	}
+	
+	/**
+	 * Creates a thread factory giving its threads a common prefix, which makes them easy to spot in thread dumps.
+	 * 
+	 * @param prefix the prefix of the thread names.
+	 * @return a ThreadFactory creating daemon threads named with the given prefix.
+	 */
+	static ThreadFactory namedThreadFactory(String prefix) {
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -31,6 +31,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 
+import mytimeacty.service.Bcrypt.BcryptCostCalibrator;
+
 
 @Configuration
 @EnableWebSecurity
@@ -42,6 +44,9 @@ public class SecurityConfig {
 	@Value("${cors.origin.allowed.name}")
     private String corsOriginAllowedName;
 	
+	@Value("${bcrypt.target-latency-ms:250}")
+	private long bcryptTargetLatencyMs;
+	
 	/**
 	 * Configures the security filter chain for HTTP requests.
 	 * 
@@ -81,12 +86,13 @@ public class SecurityConfig {
 
 	/**
 	 * Provides a BCryptPasswordEncoder bean for encoding passwords.
+	 * Its cost factor is calibrated at startup so that a hash takes about the target latency on this machine.
 	 * 
 	 * @return a BCryptPasswordEncoder instance.
 	 */
 	@Bean
 	BCryptPasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new BCryptPasswordEncoder(BcryptCostCalibrator.calibrate(bcryptTargetLatencyMs));
 	}
 	
 	/**
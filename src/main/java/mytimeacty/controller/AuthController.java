@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import mytimeacty.exception.UserNotFoundException;
 import mytimeacty.model.auth.LoginDTO;
@@ -45,13 +46,16 @@ public class AuthController {
      * If the provided credentials are incorrect or the user does not exist, an unauthorized error response is returned.
      * 
      * @param loginDTO the login details of the user, including nickname/email and password.
+     * @param request the HTTP request, used to throttle the attempts per client IP. Behind the reverse proxy,
+     *                its remote address is the client IP resolved from X-Forwarded-For (server.forward-headers-strategy).
      * @return a ResponseEntity containing the authentication token if login is successful.
-     *         Returns a 401 Unauthorized status with an error message if the login fails.
+     *         Returns a 401 Unauthorized status with an error message if the login fails,
+     *         or a 429 Too Many Requests status if too many attempts were made.
      */
 	@PostMapping("/login")
-	public ResponseEntity<String> getToken(@Valid @RequestBody LoginDTO loginDTO, Locale locale) {
+	public ResponseEntity<String> getToken(@Valid @RequestBody LoginDTO loginDTO, HttpServletRequest request, Locale locale) {
 		try {
-            String token = authenticationService.authenticateUser(loginDTO);
+            String token = authenticationService.authenticateUser(loginDTO, request.getRemoteAddr());
             logger.info("User with nickname/email '{}' sucessfully connected with token '{}'", loginDTO.getNicknameOrEmail(), token);
             return ResponseEntity.status(HttpStatus.OK).body(token);
         } catch (UserNotFoundException | AuthenticationException e) {
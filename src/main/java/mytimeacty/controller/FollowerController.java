@@ -16,6 +16,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import mytimeacty.model.followers.dto.FollowerDTO;
 import mytimeacty.model.followers.dto.FollowingDTO;
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+import mytimeacty.model.pagination.enums.TotalMode;
 import mytimeacty.service.FollowerService;
 import mytimeacty.utils.SecurityUtils;
 
@@ -35,15 +37,21 @@ public class FollowerController {
      * The pagination can be customized using the `page` and `size` query parameters.
      * 
      * @param userId the ID of the user whose followers are to be retrieved.
+     * @param total an optional total mode: "none" or "approx" for a SlicePageDTO without an exact count, "exact" (in any case) or nothing for a Page.
      * @param page the page number to retrieve (zero-based).
      * @param size the number of items per page.
-     * @return a ResponseEntity containing a Page of FollowerDTO objects with the followers of the user.
+     * @return a ResponseEntity containing a Page of FollowerDTO objects with the followers of the user, or a SlicePageDTO of them when the total mode is none or approx.
      */
     @GetMapping("/users/{userId}/followers")
-    public ResponseEntity<Page<FollowerDTO>> getFollowers(
+    public ResponseEntity<?> getFollowers(
             @PathVariable int userId,
+            @RequestParam(required = false) String total,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size) {
+    	TotalMode totalMode = TotalMode.fromParameter(total);
+    	if (totalMode != TotalMode.EXACT) {
+    		return getFollowersSlice(userId, totalMode, page, size);
+    	}
 
         Page<FollowerDTO> followers = followerService.getFollowersByUserId(userId, page, size);
         logger.info("User with the nickname '{}' has successfully retrieved all followers of user with id '{}'", 
@@ -51,6 +59,24 @@ public class FollowerController {
         return ResponseEntity.status(HttpStatus.OK).body(followers);
     }
 
+    /**
+     * Retrieves a slice of followers for a specified user, without an exact count.
+     * Used by getFollowers when the "total" parameter is "none" (no total) or "approx" (a total cached for a short while).
+     * 
+     * @param userId the ID of the user whose followers are to be retrieved.
+     * @param total the total mode, NONE or APPROX.
+     * @param page the page number to retrieve (zero-based).
+     * @param size the number of items per page.
+     * @return a ResponseEntity containing a SlicePageDTO of FollowerDTO objects.
+     */
+    private ResponseEntity<SlicePageDTO<FollowerDTO>> getFollowersSlice(int userId, TotalMode total, int page, int size) {
+
+        SlicePageDTO<FollowerDTO> followers = followerService.getFollowersSliceByUserId(userId, page, size, total);
+        logger.info("User with the nickname '{}' has successfully retrieved all followers of user with id '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), userId);
+        return ResponseEntity.status(HttpStatus.OK).body(followers);
+    }
+
     /**
      * Retrieves a paginated list of followings for a specified user.
      * 
@@ -58,15 +84,21 @@ public class FollowerController {
      * The pagination can be customized using the `page` and `size` query parameters.
      * 
      * @param userId the ID of the user whose followings are to be retrieved.
+     * @param total an optional total mode: "none" or "approx" for a SlicePageDTO without an exact count, "exact" (in any case) or nothing for a Page.
      * @param page the page number to retrieve (zero-based).
      * @param size the number of items per page.
-     * @return a ResponseEntity containing a Page of FollowingDTO objects with the users followed by the user.
+     * @return a ResponseEntity containing a Page of FollowingDTO objects with the users followed by the user, or a SlicePageDTO of them when the total mode is none or approx.
      */
     @GetMapping("/users/{userId}/followings")
-    public ResponseEntity<Page<FollowingDTO>> getFollowings(
+    public ResponseEntity<?> getFollowings(
             @PathVariable int userId,
+            @RequestParam(required = false) String total,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size) {
+    	TotalMode totalMode = TotalMode.fromParameter(total);
+    	if (totalMode != TotalMode.EXACT) {
+    		return getFollowingsSlice(userId, totalMode, page, size);
+    	}
 
         Page<FollowingDTO> followings = followerService.getFollowingsByUserId(userId, page, size);
         logger.info("User with the nickname '{}' has successfully retrieved all followings of user with id '{}'", 
@@ -74,6 +106,24 @@ public class FollowerController {
         return ResponseEntity.status(HttpStatus.OK).body(followings);
     }
 
+    /**
+     * Retrieves a slice of followings for a specified user, without an exact count.
+     * Used by getFollowings when the "total" parameter is "none" (no total) or "approx" (a total cached for a short while).
+     * 
+     * @param userId the ID of the user whose followings are to be retrieved.
+     * @param total the total mode, NONE or APPROX.
+     * @param page the page number to retrieve (zero-based).
+     * @param size the number of items per page.
+     * @return a ResponseEntity containing a SlicePageDTO of FollowingDTO objects.
+     */
+    private ResponseEntity<SlicePageDTO<FollowingDTO>> getFollowingsSlice(int userId, TotalMode total, int page, int size) {
+
+        SlicePageDTO<FollowingDTO> followings = followerService.getFollowingsSliceByUserId(userId, page, size, total);
+        logger.info("User with the nickname '{}' has successfully retrieved all followings of user with id '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), userId);
+        return ResponseEntity.status(HttpStatus.OK).body(followings);
+    }
+
     /**
      * Allows the current user to follow another user.
      * 
@@ -5,12 +5,16 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import mytimeacty.annotation.RolesAllowed;
 import mytimeacty.model.quizzes.dto.QuizzCategoryDTO;
 import mytimeacty.service.quizz.QuizzCategoryService;
 import mytimeacty.utils.SecurityUtils;
@@ -24,11 +28,38 @@ public class QuizzCategoryController {
 	@Autowired
     private QuizzCategoryService categoryService;
 
+    /**
+     * Retrieves all the quizz categories, served from memory.
+     * The response carries an ETag; a request whose If-None-Match header matches it gets a 304 Not Modified without a body.
+     *
+     * @param webRequest the current request, used to evaluate the If-None-Match header.
+     * @return a ResponseEntity containing the list of QuizzCategoryDTO objects, or an empty 304 response.
+     */
     @GetMapping
-    public ResponseEntity<List<QuizzCategoryDTO>> getAllCategories() {
+    public ResponseEntity<List<QuizzCategoryDTO>> getAllCategories(WebRequest webRequest) {
+    	String etag = categoryService.getETag();
+    	if (webRequest.checkNotModified(etag)) {
+    		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    	}
+    	
         List<QuizzCategoryDTO> categories = categoryService.getAllCategories();
         logger.info("User with the nickname '{}' has successfully retrieved all quizzes category", 
         		SecurityUtils.getCurrentUser().getNickname());
-        return ResponseEntity.status(HttpStatus.OK).body(categories);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).cacheControl(CacheControl.noCache()).body(categories);
+    }
+    
+    /**
+     * Allows only users with the roles "admin" or "chief" to reload the quizz categories from the database,
+     * after they have been changed there.
+     *
+     * @return a ResponseEntity with a confirmation message and HTTP status 200 OK.
+     */
+    @RolesAllowed({"admin", "chief"})
+    @PostMapping("/reload")
+    public ResponseEntity<String> reloadCategories() {
+    	categoryService.reloadCategories();
+    	logger.info("User with the nickname '{}' (role: '{}') has successfully reloaded the quizzes categories", 
+        		SecurityUtils.getCurrentUser().getNickname(), SecurityUtils.getCurrentUser().getUserRole());
+    	return ResponseEntity.status(HttpStatus.OK).body("Categories reloaded successfully");
     }
 }
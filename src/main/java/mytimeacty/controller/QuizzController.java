@@ -1,5 +1,7 @@
 package mytimeacty.controller;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import mytimeacty.annotation.RolesAllowed;
+import mytimeacty.model.pagination.dto.CursorPageDTO;
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+import mytimeacty.model.pagination.enums.TotalMode;
 import mytimeacty.model.quizzes.dto.QuizzDTO;
 import mytimeacty.model.quizzes.dto.QuizzWithDetailsDTO;
 import mytimeacty.model.quizzes.dto.QuizzWithLikeAndFavouriteDTO;
@@ -67,22 +72,28 @@ public class QuizzController {
 	/**
      * Retrieves a paginated list of quizzes with optional filtering by title, nickname, category, or level.
      *
+     * @param total an optional total mode: "none" or "approx" for a SlicePageDTO without an exact count, "exact" (in any case) or nothing for a Page.
      * @param page the page number to retrieve (zero-based).
      * @param size the number of items per page.
      * @param title an optional filter by quizz title.
      * @param nickname an optional filter by user nickname.
      * @param categoryLabel an optional filter by quizz category.
      * @param levelLabel an optional filter by quizz difficulty level.
-     * @return a ResponseEntity containing a Page of QuizzWithLikeAndFavouriteDTO objects.
+     * @return a ResponseEntity containing a Page of QuizzWithLikeAndFavouriteDTO objects, or a SlicePageDTO of them when the total mode is none or approx.
      */
 	@GetMapping
-    public ResponseEntity<Page<QuizzWithLikeAndFavouriteDTO>> getAllQuizzes(
+    public ResponseEntity<?> getAllQuizzes(
+        @RequestParam(required = false) String total,
         @RequestParam(defaultValue = "0") int page, 
         @RequestParam(defaultValue = "15") int size,
         @RequestParam(required = false) String title,
         @RequestParam(required = false) String nickname,
         @RequestParam(required = false) Integer categoryId,
         @RequestParam(required = false) Integer levelId) {
+        TotalMode totalMode = TotalMode.fromParameter(total);
+        if (totalMode != TotalMode.EXACT) {
+        	return getAllQuizzesSlice(totalMode, page, size, title, nickname, categoryId, levelId);
+        }
         
         Page<QuizzWithLikeAndFavouriteDTO> quizzes = quizzService.getQuizzes(page, size, title, nickname, categoryId, levelId);
         
@@ -92,25 +103,103 @@ public class QuizzController {
         return ResponseEntity.status(HttpStatus.OK).body(quizzes);
     }
 	
+	/**
+     * Retrieves a slice of quizzes with optional filtering by title, nickname, category, or level, without an exact count.
+     * Used by getAllQuizzes when the "total" parameter is "none" (no total) or "approx" (a total cached for a short while);
+     * "exact" or no "total" parameter returns the usual Page.
+     *
+     * @param total the total mode, NONE or APPROX.
+     * @param page the page number to retrieve (zero-based).
+     * @param size the number of items per page.
+     * @param title an optional filter by quizz title.
+     * @param nickname an optional filter by user nickname.
+     * @param categoryId an optional filter by quizz category.
+     * @param levelId an optional filter by quizz difficulty level.
+     * @return a ResponseEntity containing a SlicePageDTO of QuizzWithLikeAndFavouriteDTO objects.
+     */
+    private ResponseEntity<SlicePageDTO<QuizzWithLikeAndFavouriteDTO>> getAllQuizzesSlice(TotalMode total, int page, int size, String title, String nickname, Integer categoryId, Integer levelId) {
+        
+        SlicePageDTO<QuizzWithLikeAndFavouriteDTO> quizzes = quizzService.getQuizzesSlice(page, size, title, nickname, categoryId, levelId, 
+        		total);
+        
+        logger.info("User with the nickname '{}' has successfully retrieved all quizzes with params total '{}', page '{}', size '{}', "
+        		+ "title '{}', nickname '{}', category '{}' and level '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), total, page, size, title, nickname, categoryId, levelId);
+        return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+    }
+	
+	/**
+     * Retrieves a cursor page of quizzes with optional filtering by title, nickname, category, or level.
+     * Selected when the "cursor" parameter is present: an empty cursor returns the first page,
+     * and the "nextCursor" of a response returns the page following it.
+     * With a title or nickname, the quizzes are ranked by relevance as in the other modes, and the request is answered
+     * with 503 Service Unavailable while the search index is being built at startup.
+     *
+     * @param cursor the continuation token of the previous page, empty for the first page.
+     * @param size the number of items per page.
+     * @param title an optional filter by quizz title.
+     * @param nickname an optional filter by user nickname.
+     * @param categoryId an optional filter by quizz category.
+     * @param levelId an optional filter by quizz difficulty level.
+     * @return a ResponseEntity containing a CursorPageDTO of QuizzWithLikeAndFavouriteDTO objects.
+     */
+	@GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<QuizzWithLikeAndFavouriteDTO>> getAllQuizzesByCursor(
+        @RequestParam String cursor, 
+        @RequestParam(defaultValue = "15") int size,
+        @RequestParam(required = false) String title,
+        @RequestParam(required = false) String nickname,
+        @RequestParam(required = false) Integer categoryId,
+        @RequestParam(required = false) Integer levelId) {
+        
+        CursorPageDTO<QuizzWithLikeAndFavouriteDTO> quizzes = quizzService.getQuizzesByCursor(cursor, size, title, nickname, categoryId, levelId);
+        
+        logger.info("User with the nickname '{}' has successfully retrieved all quizzes with params cursor '{}', size '{}', "
+        		+ "title '{}', nickname '{}', category '{}' and level '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), cursor, size, title, nickname, categoryId, levelId);
+        return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+    }
+	
+	/**
+     * Retrieves the trending quizzes, ranked by their recent likes, favourites and plays with a time decay.
+     *
+     * @param size the maximum number of quizzes to retrieve.
+     * @return a ResponseEntity containing a list of QuizzDTO objects, the most active first.
+     */
+	@GetMapping("/trending")
+    public ResponseEntity<List<QuizzDTO>> getTrendingQuizzes(@RequestParam(defaultValue = "15") int size) {
+        List<QuizzDTO> quizzes = quizzService.getTrendingQuizzes(size);
+        
+        logger.info("User with the nickname '{}' has successfully retrieved the trending quizzes with param size '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), size);
+        return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+    }
+	
 	/**
      * Retrieves a paginated list of quizzes liked by a specific user.
      *
      * @param idUser the ID of the user whose liked quizzes are to be retrieved.
+     * @param total an optional total mode: "none" or "approx" for a SlicePageDTO without an exact count, "exact" (in any case) or nothing for a Page.
      * @param page the page number to retrieve (zero-based).
      * @param size the number of items per page.
      * @param title an optional filter by quizz title.
      * @param categoryLabel an optional filter by quizz category.
      * @param levelLabel an optional filter by quiz difficulty level.
-     * @return a ResponseEntity containing a Page of QuizzDTO objects.
+     * @return a ResponseEntity containing a Page of QuizzDTO objects, or a SlicePageDTO of them when the total mode is none or approx.
      */
 	@GetMapping("/likes/users/{idUser}")
-	public ResponseEntity<Page<QuizzDTO>> getLikedQuizzes(
+	public ResponseEntity<?> getLikedQuizzes(
 		@PathVariable int idUser,
+		@RequestParam(required = false) String total,
 	    @RequestParam(defaultValue = "0") int page, 
 	    @RequestParam(defaultValue = "15") int size,
 	    @RequestParam(required = false) String title,
 	    @RequestParam(required = false) Integer categoryId,
         @RequestParam(required = false) Integer levelId) {
+	    TotalMode totalMode = TotalMode.fromParameter(total);
+	    if (totalMode != TotalMode.EXACT) {
+	    	return getLikedQuizzesSlice(idUser, totalMode, page, size, title, categoryId, levelId);
+	    }
 	    
 	    Page<QuizzDTO> quizzes = quizzService.getLikedQuizzes(idUser, page, size, title, categoryId, levelId);
 	    
@@ -120,25 +209,83 @@ public class QuizzController {
 	    return ResponseEntity.status(HttpStatus.OK).body(quizzes);
 	}
 	
+	/**
+     * Retrieves a slice of quizzes liked by a specific user, without an exact count.
+     * Used by getLikedQuizzes when the "total" parameter is "none" or "approx".
+     *
+     * @param idUser the ID of the user whose liked quizzes are to be retrieved.
+     * @param total the total mode, NONE or APPROX.
+     * @param page the page number to retrieve (zero-based).
+     * @param size the number of items per page.
+     * @param title an optional filter by quizz title.
+     * @param categoryId an optional filter by quizz category.
+     * @param levelId an optional filter by quiz difficulty level.
+     * @return a ResponseEntity containing a SlicePageDTO of QuizzDTO objects.
+     */
+	private ResponseEntity<SlicePageDTO<QuizzDTO>> getLikedQuizzesSlice(int idUser, TotalMode total, int page, int size, String title, Integer categoryId, Integer levelId) {
+	    
+		SlicePageDTO<QuizzDTO> quizzes = quizzService.getLikedQuizzesSlice(idUser, page, size, title, categoryId, levelId, total);
+	    
+	    logger.info("User with the nickname '{}' has successfully retrieved all quizzes liked by user with id '{}' using params total '{}', page '{}', size '{}', "
+        		+ "title '{}', category '{}' and level '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), idUser, total, page, size, title, categoryId, levelId);
+	    return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+	}
+	
+	/**
+     * Retrieves a cursor page of quizzes liked by a specific user.
+     * Selected when the "cursor" parameter is present, empty for the first page.
+     *
+     * @param idUser the ID of the user whose liked quizzes are to be retrieved.
+     * @param cursor the continuation token of the previous page, empty for the first page.
+     * @param size the number of items per page.
+     * @param title an optional filter by quizz title.
+     * @param categoryId an optional filter by quizz category.
+     * @param levelId an optional filter by quiz difficulty level.
+     * @return a ResponseEntity containing a CursorPageDTO of QuizzDTO objects.
+     */
+	@GetMapping(value = "/likes/users/{idUser}", params = "cursor")
+	public ResponseEntity<CursorPageDTO<QuizzDTO>> getLikedQuizzesByCursor(
+		@PathVariable int idUser,
+	    @RequestParam String cursor, 
+	    @RequestParam(defaultValue = "15") int size,
+	    @RequestParam(required = false) String title,
+	    @RequestParam(required = false) Integer categoryId,
+        @RequestParam(required = false) Integer levelId) {
+	    
+		CursorPageDTO<QuizzDTO> quizzes = quizzService.getLikedQuizzesByCursor(idUser, cursor, size, title, categoryId, levelId);
+	    
+	    logger.info("User with the nickname '{}' has successfully retrieved all quizzes liked by user with id '{}' using params cursor '{}', size '{}', "
+        		+ "title '{}', category '{}' and level '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), idUser, cursor, size, title, categoryId, levelId);
+	    return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+	}
+	
 	/**
      * Retrieves a paginated list of quizzes marked as favorites by a specific user.
      *
      * @param idUser the ID of the user whose favorite quizzes are to be retrieved.
+     * @param total an optional total mode: "none" or "approx" for a SlicePageDTO without an exact count, "exact" (in any case) or nothing for a Page.
      * @param page the page number to retrieve (zero-based).
      * @param size the number of items per page.
      * @param title an optional filter by quizz title.
      * @param categoryLabel an optional filter by quizz category.
      * @param levelLabel an optional filter by quiz difficulty level.
-     * @return a ResponseEntity containing a Page of QuizzDTO objects.
+     * @return a ResponseEntity containing a Page of QuizzDTO objects, or a SlicePageDTO of them when the total mode is none or approx.
      */
 	@GetMapping("/favourites/users/{idUser}")
-	public ResponseEntity<Page<QuizzDTO>> getFavouriteQuizzes(
+	public ResponseEntity<?> getFavouriteQuizzes(
 		@PathVariable int idUser,
+		@RequestParam(required = false) String total,
 	    @RequestParam(defaultValue = "0") int page, 
 	    @RequestParam(defaultValue = "15") int size,
 	    @RequestParam(required = false) String title,
 	    @RequestParam(required = false) Integer categoryId,
         @RequestParam(required = false) Integer levelId) {
+	    TotalMode totalMode = TotalMode.fromParameter(total);
+	    if (totalMode != TotalMode.EXACT) {
+	    	return getFavouriteQuizzesSlice(idUser, totalMode, page, size, title, categoryId, levelId);
+	    }
 	    
 	    Page<QuizzDTO> quizzes = quizzService.getFavouriteQuizzes(idUser, page, size, title, categoryId, levelId);
 	    
@@ -148,6 +295,58 @@ public class QuizzController {
 	    return ResponseEntity.status(HttpStatus.OK).body(quizzes);
 	}
 	
+	/**
+     * Retrieves a slice of quizzes marked as favorites by a specific user, without an exact count.
+     * Used by getFavouriteQuizzes when the "total" parameter is "none" or "approx".
+     *
+     * @param idUser the ID of the user whose favourited quizzes are to be retrieved.
+     * @param total the total mode, NONE or APPROX.
+     * @param page the page number to retrieve (zero-based).
+     * @param size the number of items per page.
+     * @param title an optional filter by quizz title.
+     * @param categoryId an optional filter by quizz category.
+     * @param levelId an optional filter by quiz difficulty level.
+     * @return a ResponseEntity containing a SlicePageDTO of QuizzDTO objects.
+     */
+	private ResponseEntity<SlicePageDTO<QuizzDTO>> getFavouriteQuizzesSlice(int idUser, TotalMode total, int page, int size, String title, Integer categoryId, Integer levelId) {
+	    
+		SlicePageDTO<QuizzDTO> quizzes = quizzService.getFavouriteQuizzesSlice(idUser, page, size, title, categoryId, levelId, total);
+	    
+	    logger.info("User with the nickname '{}' has successfully retrieved all quizzes favourited by user with id '{}' using params total '{}', page '{}', size '{}', "
+        		+ "title '{}', category '{}' and level '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), idUser, total, page, size, title, categoryId, levelId);
+	    return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+	}
+	
+	/**
+     * Retrieves a cursor page of quizzes marked as favorites by a specific user.
+     * Selected when the "cursor" parameter is present, empty for the first page.
+     *
+     * @param idUser the ID of the user whose favorite quizzes are to be retrieved.
+     * @param cursor the continuation token of the previous page, empty for the first page.
+     * @param size the number of items per page.
+     * @param title an optional filter by quizz title.
+     * @param categoryId an optional filter by quizz category.
+     * @param levelId an optional filter by quiz difficulty level.
+     * @return a ResponseEntity containing a CursorPageDTO of QuizzDTO objects.
+     */
+	@GetMapping(value = "/favourites/users/{idUser}", params = "cursor")
+	public ResponseEntity<CursorPageDTO<QuizzDTO>> getFavouriteQuizzesByCursor(
+		@PathVariable int idUser,
+	    @RequestParam String cursor, 
+	    @RequestParam(defaultValue = "15") int size,
+	    @RequestParam(required = false) String title,
+	    @RequestParam(required = false) Integer categoryId,
+        @RequestParam(required = false) Integer levelId) {
+	    
+		CursorPageDTO<QuizzDTO> quizzes = quizzService.getFavouriteQuizzesByCursor(idUser, cursor, size, title, categoryId, levelId);
+	    
+	    logger.info("User with the nickname '{}' has successfully retrieved all quizzes favourited by user with id '{}' using params cursor '{}', size '{}', "
+        		+ "title '{}', category '{}' and level '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), idUser, cursor, size, title, categoryId, levelId);
+	    return ResponseEntity.status(HttpStatus.OK).body(quizzes);
+	}
+	
 	/**
      * Allows the current user to mark a quizz as a favorite.
      *
@@ -5,12 +5,16 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import mytimeacty.annotation.RolesAllowed;
 import mytimeacty.model.quizzes.dto.QuizzLevelDTO;
 import mytimeacty.service.quizz.QuizzLevelService;
 import mytimeacty.utils.SecurityUtils;
@@ -24,11 +28,38 @@ public class QuizzLevelController {
 	@Autowired
     private QuizzLevelService levelService;
 
+    /**
+     * Retrieves all the quizz levels, served from memory.
+     * The response carries an ETag; a request whose If-None-Match header matches it gets a 304 Not Modified without a body.
+     *
+     * @param webRequest the current request, used to evaluate the If-None-Match header.
+     * @return a ResponseEntity containing the list of QuizzLevelDTO objects, or an empty 304 response.
+     */
     @GetMapping
-    public ResponseEntity<List<QuizzLevelDTO>> getAllLevels() {
+    public ResponseEntity<List<QuizzLevelDTO>> getAllLevels(WebRequest webRequest) {
+    	String etag = levelService.getETag();
+    	if (webRequest.checkNotModified(etag)) {
+    		return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    	}
+    	
         List<QuizzLevelDTO> levels = levelService.getAllLevels();
         logger.info("User with the nickname '{}' has successfully retrieved all quizzes level", 
         		SecurityUtils.getCurrentUser().getNickname());
-        return ResponseEntity.status(HttpStatus.OK).body(levels);
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).cacheControl(CacheControl.noCache()).body(levels);
+    }
+    
+    /**
+     * Allows only users with the roles "admin" or "chief" to reload the quizz levels from the database,
+     * after they have been changed there.
+     *
+     * @return a ResponseEntity with a confirmation message and HTTP status 200 OK.
+     */
+    @RolesAllowed({"admin", "chief"})
+    @PostMapping("/reload")
+    public ResponseEntity<String> reloadLevels() {
+    	levelService.reloadLevels();
+    	logger.info("User with the nickname '{}' (role: '{}') has successfully reloaded the quizzes levels", 
+        		SecurityUtils.getCurrentUser().getNickname(), SecurityUtils.getCurrentUser().getUserRole());
+    	return ResponseEntity.status(HttpStatus.OK).body("Levels reloaded successfully");
     }
 }
@@ -15,6 +15,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+import mytimeacty.model.pagination.enums.TotalMode;
+import mytimeacty.model.quizzplay.dto.LeaderboardEntryDTO;
+import mytimeacty.model.quizzplay.dto.QuestionStatsDTO;
 import mytimeacty.model.quizzplay.dto.QuizzPlayDTO;
 import mytimeacty.model.quizzplay.dto.QuizzPlayWithAnswerDTO;
 import mytimeacty.model.quizzplay.dto.creation.UserAnswerCreateDTO;
@@ -54,15 +58,22 @@ public class QuizzPlayController {
      * Retrieves a paginated list of quizz plays associated with a specific quizz.
      * 
      * @param quizzId the ID of the quizz for which the plays are being retrieved.
+     * @param total an optional total mode: "none" or "approx" for a SlicePageDTO without an exact count, "exact" (in any case) or nothing for a Page.
      * @param page the page number to retrieve (zero-based).
      * @param size the number of items per page.
-     * @return a ResponseEntity containing a Page of QuizzPlayDTO objects and HTTP status 200 OK.
+     * @return a ResponseEntity containing a Page of QuizzPlayDTO objects and HTTP status 200 OK, or a SlicePageDTO of them when the total mode is none or approx.
      */
     @GetMapping("/quizzes/{quizzId}/plays")
-    public ResponseEntity<Page<QuizzPlayDTO>> getQuizzPlaysByQuizz(
+    public ResponseEntity<?> getQuizzPlaysByQuizz(
             @PathVariable int quizzId,
+            @RequestParam(required = false) String total,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size) {
+        TotalMode totalMode = TotalMode.fromParameter(total);
+        if (totalMode != TotalMode.EXACT) {
+        	return getQuizzPlaysSliceByQuizz(quizzId, totalMode, page, size);
+        }
+        
 
         Page<QuizzPlayDTO> quizzPlayDTOs = quizzPlayService.getQuizzPlaysByQuizz(quizzId, page, size);
         logger.info("User with the nickname '{}' has successfully retrieved the quizz plays for the quizz with id '{}' using "
@@ -71,9 +82,71 @@ public class QuizzPlayController {
         return ResponseEntity.status(HttpStatus.OK).body(quizzPlayDTOs);
     }
     
+    /**
+     * Retrieves a slice of quizz plays associated with a specific quizz, without an exact count.
+     * Used by getQuizzPlaysByQuizz when the "total" parameter is "none" (no total) or "approx" (a total cached for a short while).
+     * 
+     * @param quizzId the ID of the quizz for which the plays are being retrieved.
+     * @param total the total mode, NONE or APPROX.
+     * @param page the page number to retrieve (zero-based).
+     * @param size the number of items per page.
+     * @return a ResponseEntity containing a SlicePageDTO of QuizzPlayDTO objects and HTTP status 200 OK.
+     */
+    private ResponseEntity<SlicePageDTO<QuizzPlayDTO>> getQuizzPlaysSliceByQuizz(
+            int quizzId,
+            TotalMode total,
+            int page,
+            int size) {
+
+        SlicePageDTO<QuizzPlayDTO> quizzPlayDTOs = quizzPlayService.getQuizzPlaysSliceByQuizz(quizzId, page, size, total);
+        logger.info("User with the nickname '{}' has successfully retrieved the quizz plays for the quizz with id '{}' using "
+        		+ "params total '{}', page '{}' and size '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), quizzId, total, page, size);
+        return ResponseEntity.status(HttpStatus.OK).body(quizzPlayDTOs);
+    }
+    
+    /**
+     * Retrieves the leaderboard of a quizz: the best score of each player, ties broken by the earliest play.
+     * 
+     * @param quizzId the ID of the quizz for which the leaderboard is being retrieved.
+     * @param size the maximum number of players to retrieve.
+     * @return a ResponseEntity containing a list of LeaderboardEntryDTO objects, the best first, and HTTP status 200 OK.
+     */
+    @GetMapping("/quizzes/{quizzId}/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(
+            @PathVariable int quizzId,
+            @RequestParam(defaultValue = "10") int size) {
+
+        List<LeaderboardEntryDTO> leaderboard = quizzPlayService.getLeaderboard(quizzId, size);
+        logger.info("User with the nickname '{}' has successfully retrieved the leaderboard of the quizz with id '{}' using "
+        		+ "param size '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), quizzId, size);
+        return ResponseEntity.status(HttpStatus.OK).body(leaderboard);
+    }
+    
+    /**
+     * Retrieves the answer statistics of a quizz: how many times each answer of each question has been chosen.
+     * 
+     * @param quizzId the ID of the quizz for which the statistics are being retrieved.
+     * @return a ResponseEntity containing a list of QuestionStatsDTO objects, in the order of the questions, and HTTP status 200 OK.
+     */
+    @GetMapping("/quizzes/{quizzId}/answer-stats")
+    public ResponseEntity<List<QuestionStatsDTO>> getAnswerStats(
+            @PathVariable int quizzId) {
+
+        List<QuestionStatsDTO> answerStats = quizzPlayService.getAnswerStats(quizzId);
+        logger.info("User with the nickname '{}' has successfully retrieved the answer statistics of the quizz with id '{}'", 
+        		SecurityUtils.getCurrentUser().getNickname(), quizzId);
+        return ResponseEntity.status(HttpStatus.OK).body(answerStats);
+    }
+    
     /**
      * Retrieves the quizz play with its answers
      * 
+     * The idUserAnswer of each answer is null for the plays whose answers are stored encoded
+     * (quizz-play.answers.storage=encoded, the default), since such answers have no row of their own.
+     * It is only set for the plays stored as user_answers rows. Clients must identify an answer by its answerId.
+     * 
      * @param quizzPlayId the ID of the quizz play for which the quizz play and its answers are being retrieved.
      * @return a ResponseEntity containing the quizz dto and HTTP status 200 OK.
      */
@@ -9,6 +9,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import mytimeacty.model.users.dto.UserDTO;
 import mytimeacty.model.users.enums.UserRole;
+import mytimeacty.security.PrincipalCache;
+import mytimeacty.security.TokenRevocationRegistry;
 import mytimeacty.service.UserService;
 import mytimeacty.service.JWT.JWTService;
 
@@ -18,6 +20,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -34,6 +37,15 @@ public class JwtAuthenticationFilter implements Filter {
 	@Autowired
     private JWTService jwtService;
 	
+	@Autowired
+	private PrincipalCache principalCache;
+	
+	@Autowired
+	private TokenRevocationRegistry tokenRevocationRegistry;
+	
+	@Value("${jwt.stateless.enabled:false}")
+	private boolean statelessEnabled;
+	
 	private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 	
 	/**
@@ -69,7 +81,15 @@ public class JwtAuthenticationFilter implements Filter {
             return;
         }
         
-        UserDTO userFromToken = getUserFromToken(token);
+        Jwt jwt = jwtService.getJwtFromToken(token);
+        
+        if(statelessEnabled && isRevoked(jwt)){
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+            logger.warn("Revoked token used by user with nickname '{}'", (String) jwt.getClaim("nickname"));
+            return;
+        }
+        
+        UserDTO userFromToken = getUserFromToken(jwt);
         
         if(userFromToken.getUserRole().equals(UserRole.BANNED.getRole())){
             response.sendError(HttpServletResponse.SC_FORBIDDEN, "You are banned");
@@ -102,20 +122,45 @@ public class JwtAuthenticationFilter implements Filter {
 	}
 	
 	/**
-	 * Retrieves user details from the JWT token.
+	 * Retrieves user details from the decoded JWT token.
+	 * In stateless mode, tokens carrying a role claim are trusted as is. Otherwise the user is
+	 * served from the principal cache and only loaded from the database on a miss.
 	 * 
-	 * @param token the JWT token containing user information.
+	 * @param jwt the decoded JWT token containing user information.
 	 * @return a UserDTO object with user details.
 	 */
-	public UserDTO getUserFromToken(String token) {
-		Jwt jwt = jwtService.getJwtFromToken(token);
-
+	public UserDTO getUserFromToken(Jwt jwt) {
 		long userId = jwt.getClaim("id");
+		
+		if (statelessEnabled && jwt.hasClaim("role")) {
+			return UserDTO.builder()
+					.idUser((int) userId)
+					.email(jwt.getSubject())
+					.nickname(jwt.getClaim("nickname"))
+					.userRole(jwt.getClaim("role"))
+					.build();
+		}
 
-	    UserDTO user = userService.getUserById((int) userId);
+	    UserDTO user = principalCache.get((int) userId, userService::getUserById);
 	    return user;
 	}
 	
+	/**
+	 * Checks whether the token was issued before the last ban or role change of its user.
+	 * Tokens issued before the stateless mode was enabled carry no epoch and are never revoked here.
+	 * 
+	 * @param jwt the decoded JWT token.
+	 * @return true if the token has been revoked, otherwise false.
+	 */
+	private boolean isRevoked(Jwt jwt) {
+		if (!jwt.hasClaim("epoch")) {
+			return false;
+		}
+		long userId = jwt.getClaim("id");
+		long tokenEpoch = jwt.getClaim("epoch");
+		return tokenRevocationRegistry.isRevoked((int) userId, tokenEpoch);
+	}
+	
 	/**
 	 * Creates an Authentication object based on user details and roles.
 	 * 
@@ -1,7 +1,10 @@
 package mytimeacty.mapper;
 
 import mytimeacty.model.quizzes.Quizz;
+import mytimeacty.model.quizzes.dto.QuizzCardDTO;
+import mytimeacty.model.quizzes.dto.QuizzCategoryDTO;
 import mytimeacty.model.quizzes.dto.QuizzDTO;
+import mytimeacty.model.quizzes.dto.QuizzLevelDTO;
 import mytimeacty.model.quizzes.dto.QuizzWithLikeAndFavouriteDTO;
 
 public class QuizzMapper {
@@ -26,6 +29,9 @@ public class QuizzMapper {
                 .category(QuizzCategoryMapper.toDTO(quizz.getCategory()))
                 .level(QuizzLevelMapper.toDTO(quizz.getLevel()))
                 .createdAt(quizz.getCreatedAt())
+                .likeCount(quizz.getLikeCount())
+                .favouriteCount(quizz.getFavouriteCount())
+                .playCount(quizz.getPlayCount())
                 .build();
     }
 	
@@ -43,8 +49,65 @@ public class QuizzMapper {
                 .category(QuizzCategoryMapper.toDTO(quizz.getCategory()))
                 .level(QuizzLevelMapper.toDTO(quizz.getLevel()))
                 .createdAt(quizz.getCreatedAt())
+                .likeCount(quizz.getLikeCount())
+                .favouriteCount(quizz.getFavouriteCount())
+                .playCount(quizz.getPlayCount())
         	    .isLiked(isLiked)
         	    .isFavourite(isFavourite)
         	    .build();
     }
+	
+	/**
+	 * Converts a QuizzCardDTO projection to a QuizzDTO.
+	 * 
+	 * @param card the QuizzCardDTO to be converted.
+	 * @return a QuizzDTO representing the quizz's information, or null if the input card is null.
+	 */
+	public static QuizzDTO toDTO(QuizzCardDTO card) {
+		if (card == null) {
+			return null;
+		}
+		
+		return QuizzDTO.builder()
+				.idQuizz(card.idQuizz())
+				.title(card.title())
+				.creatorId(card.creatorId())
+				.creatorNickname(card.creatorNickname())
+				.category(new QuizzCategoryDTO(card.categoryId(), card.categoryLabel()))
+				.level(new QuizzLevelDTO(card.levelId(), card.levelLabel()))
+				.createdAt(card.createdAt())
+				.likeCount(card.likeCount())
+				.favouriteCount(card.favouriteCount())
+				.playCount(card.playCount())
+				.build();
+	}
+	
+	/**
+	 * Converts a QuizzCardDTO projection to a QuizzWithLikeAndFavouriteDTO.
+	 * 
+	 * @param card the QuizzCardDTO to be converted.
+	 * @param isLiked whether the current user liked the quizz.
+	 * @param isFavourite whether the current user favourited the quizz.
+	 * @return a QuizzWithLikeAndFavouriteDTO, or null if the input card is null.
+	 */
+	public static QuizzWithLikeAndFavouriteDTO toDTO(QuizzCardDTO card, boolean isLiked, boolean isFavourite) {
+		if (card == null) {
+			return null;
+		}
+		
+		return QuizzWithLikeAndFavouriteDTO.builder()
+				.idQuizz(card.idQuizz())
+				.title(card.title())
+				.creatorId(card.creatorId())
+				.creatorNickname(card.creatorNickname())
+				.category(new QuizzCategoryDTO(card.categoryId(), card.categoryLabel()))
+				.level(new QuizzLevelDTO(card.levelId(), card.levelLabel()))
+				.createdAt(card.createdAt())
+				.likeCount(card.likeCount())
+				.favouriteCount(card.favouriteCount())
+				.playCount(card.playCount())
+				.isLiked(isLiked)
+				.isFavourite(isFavourite)
+				.build();
+	}
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package mytimeacty.mapper;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import mytimeacty.model.quizzplay.UserAnswer;
 import mytimeacty.model.quizzplay.dto.UserAnswerDTO;
 
@@ -20,4 +24,17 @@ public class UserAnswerMapper {
         		.answerId(userAnswer.getAnswer().getIdAnswer())
         		.build();
     }
+	
+	/**
+	 * Converts the decoded answer IDs of a quizz play to UserAnswerDTOs.
+	 * The answers stored encoded have no row of their own, so their idUserAnswer is null.
+	 * 
+	 * @param answerIds the IDs of the answers chosen during the play.
+	 * @return a list of UserAnswerDTO, one per answer.
+	 */
+	public static List<UserAnswerDTO> toDTOs(int[] answerIds) {
+		return Arrays.stream(answerIds)
+				.mapToObj(answerId -> UserAnswerDTO.builder().answerId(answerId).build())
+				.collect(Collectors.toList());
+	}
 }
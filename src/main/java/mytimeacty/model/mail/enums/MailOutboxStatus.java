@@ -0,0 +1,7 @@
+package mytimeacty.model.mail.enums;
+
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
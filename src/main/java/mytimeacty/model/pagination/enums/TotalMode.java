@@ -0,0 +1,57 @@
+package mytimeacty.model.pagination.enums;
+
+import mytimeacty.exception.IllegalArgumentException;
+
+public enum TotalMode {
+    EXACT("exact"),
+    APPROX("approx"),
+    NONE("none");
+
+    private final String mode;
+
+    /**
+     * Constructor for the TotalMode enumeration.
+     *
+     * @param mode The string representing the mode, as sent in the "total" request parameter.
+     */
+    TotalMode(String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Gets the string representing the mode.
+     *
+     * @return The string representing the mode.
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * Converts a string to a total mode.
+     *
+     * @param mode The string representing the mode.
+     * @return The TotalMode enumeration corresponding to the string.
+     * @throws IllegalArgumentException If the string does not match any known mode.
+     */
+    public static TotalMode fromString(String mode) {
+        for (TotalMode totalMode : TotalMode.values()) {
+            if (totalMode.getMode().equalsIgnoreCase(mode)) {
+                return totalMode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown total mode: " + mode);
+    }
+
+    /**
+     * Converts the "total" request parameter of a listing to a total mode, case-insensitively.
+     * Listings route on the returned mode, so that "EXACT" gets the same Page as "exact" or no parameter.
+     *
+     * @param total The "total" request parameter, or null if it was not sent.
+     * @return EXACT if the parameter was not sent, otherwise the TotalMode corresponding to it.
+     * @throws IllegalArgumentException If the parameter does not match any known mode.
+     */
+    public static TotalMode fromParameter(String total) {
+        return total == null ? EXACT : fromString(total);
+    }
+}
@@ -3,6 +3,7 @@ package mytimeacty.model.quizzes;
 import java.time.Instant;
 import java.util.Set;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -12,7 +13,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import lombok.AllArgsConstructor;
@@ -31,7 +34,8 @@ import mytimeacty.model.users.User;
 public class Quizz {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizzes_seq")
+    @SequenceGenerator(name = "quizzes_seq", sequenceName = "quizzes_seq", schema = "mytimeacty", allocationSize = 50)
     @Column(name = "id_quizz")
     private Integer idQuizz;
 
@@ -58,6 +62,16 @@ public class Quizz {
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
+    
+    // Counters maintained by QuizzCounters with relative updates, never written by the entity
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private Long likeCount;
+    
+    @Column(name = "favourite_count", nullable = false, insertable = false, updatable = false)
+    private Long favouriteCount;
+    
+    @Column(name = "play_count", nullable = false, insertable = false, updatable = false)
+    private Long playCount;
 
     @PrePersist
     private void onCreate() {
@@ -70,7 +84,8 @@ public class Quizz {
     @OneToMany(mappedBy = "quizz", fetch = FetchType.LAZY)
     private Set<QuizzFavourite> quizzFavourites;
     
-    @OneToMany(mappedBy = "quizz")
+    @OneToMany(mappedBy = "quizz", cascade = CascadeType.PERSIST)
+    @OrderBy("numQuestion ASC")
     private Set<QuizzQuestion> quizzQuestions;
 
 }
\ No newline at end of file
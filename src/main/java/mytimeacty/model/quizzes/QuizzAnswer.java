@@ -1,5 +1,6 @@
 package mytimeacty.model.quizzes;
 
+import java.util.Objects;
 import java.util.Set;
 
 import jakarta.persistence.*;
@@ -15,7 +16,8 @@ import mytimeacty.model.quizzplay.UserAnswer;
 public class QuizzAnswer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizz_answers_seq")
+    @SequenceGenerator(name = "quizz_answers_seq", sequenceName = "quizz_answers_seq", schema = "mytimeacty", allocationSize = 50)
     @Column(name = "id_answer")
     private Integer idAnswer;
 
@@ -34,4 +36,19 @@ public class QuizzAnswer {
     
     @OneToMany(mappedBy = "answer", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private Set<UserAnswer> userAnswers;
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QuizzAnswer that = (QuizzAnswer) o;
+        // An answer not persisted yet is only equal to itself
+        return this.idAnswer != null && Objects.equals(this.idAnswer, that.idAnswer); 
+    }
+
+    @Override
+    public int hashCode() {
+        // Constant so that the hash does not change when the ID is assigned on persist
+        return getClass().hashCode(); 
+    }
 }
\ No newline at end of file
@@ -15,7 +15,8 @@ import lombok.*;
 public class QuizzQuestion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizz_questions_seq")
+    @SequenceGenerator(name = "quizz_questions_seq", sequenceName = "quizz_questions_seq", schema = "mytimeacty", allocationSize = 50)
     @Column(name = "id_question")
     private Integer idQuestion;
 
@@ -29,7 +30,8 @@ public class QuizzQuestion {
     @Column(name = "num_question", nullable = false)
     private Integer numQuestion;
     
-    @OneToMany(mappedBy = "question")
+    @OneToMany(mappedBy = "question", cascade = CascadeType.PERSIST)
+    @OrderBy("numAnswer ASC")
     private Set<QuizzAnswer> quizzAnswers;
     
     @Override
@@ -37,11 +39,13 @@ public class QuizzQuestion {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         QuizzQuestion that = (QuizzQuestion) o;
-        return Objects.equals(this.idQuestion, that.idQuestion); 
+        // A question not persisted yet is only equal to itself
+        return this.idQuestion != null && Objects.equals(this.idQuestion, that.idQuestion); 
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.idQuestion); 
+        // Constant so that the hash does not change when the ID is assigned on persist
+        return getClass().hashCode(); 
     }
 }
\ No newline at end of file
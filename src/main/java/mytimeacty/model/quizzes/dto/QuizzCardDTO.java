@@ -0,0 +1,22 @@
+package mytimeacty.model.quizzes.dto;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the columns shown on a quizz card, selected straight from the database
+ * without loading Quizz entities into the persistence context.
+ */
+public record QuizzCardDTO(
+		Integer idQuizz,
+		String title,
+		Integer creatorId,
+		String creatorNickname,
+		Integer categoryId,
+		String categoryLabel,
+		Integer levelId,
+		String levelLabel,
+		Instant createdAt,
+		Long likeCount,
+		Long favouriteCount,
+		Long playCount) {
+}
@@ -19,4 +19,7 @@ public class QuizzDTO {
     private QuizzCategoryDTO category;
     private QuizzLevelDTO level;   
     private Instant createdAt;
+    private Long likeCount;
+    private Long favouriteCount;
+    private Long playCount;
 }
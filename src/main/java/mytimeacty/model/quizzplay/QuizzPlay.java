@@ -16,8 +16,14 @@ import java.util.Set;
 @Table(name = "quizz_play", schema = "mytimeacty")
 public class QuizzPlay {
 
+	/**
+	 * Number of IDs reserved by each value of the quizz_play_seq sequence, which increments by the same amount.
+	 */
+	public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quizz_play_seq")
+    @SequenceGenerator(name = "quizz_play_seq", sequenceName = "quizz_play_seq", schema = "mytimeacty", allocationSize = QuizzPlay.ID_ALLOCATION_SIZE)
     @Column(name = "id_quizz_play")
     private Integer idQuizzPlay;
 
@@ -35,6 +41,10 @@ public class QuizzPlay {
     @Column(name = "played_at", nullable = false)
     private Instant playedAt;
     
+    // Answers chosen during the play, encoded by AnswerIdsCodec; null when they are stored as user_answers rows
+    @Column(name = "answers_encoded")
+    private byte[] answersEncoded;
+    
     @OneToMany(mappedBy = "quizzPlay", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private Set<UserAnswer> userAnswers;
 }
\ No newline at end of file
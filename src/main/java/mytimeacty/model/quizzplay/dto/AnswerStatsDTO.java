@@ -0,0 +1,15 @@
+package mytimeacty.model.quizzplay.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AnswerStatsDTO {
+    private Integer idAnswer;
+    private String answer;
+    private Integer numAnswer;
+    private Boolean isCorrect;
+    private Long pickCount;
+    private Double share;
+}
@@ -0,0 +1,21 @@
+package mytimeacty.model.quizzplay.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private Integer rank;
+    private Integer playerId;
+    private String playerNickname;
+    private Integer idQuizzPlay;
+    private Double score;
+    private Instant playedAt;
+}
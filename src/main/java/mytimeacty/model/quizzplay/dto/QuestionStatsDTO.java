@@ -0,0 +1,16 @@
+package mytimeacty.model.quizzplay.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class QuestionStatsDTO {
+    private Integer idQuestion;
+    private String question;
+    private Integer numQuestion;
+    private Long pickCount;
+    private List<AnswerStatsDTO> answers;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 @Data
 @Builder
 public class UserAnswerDTO {
+    // Null for the answers stored encoded with their play, which have no user_answers row
     private Integer idUserAnswer;
     private Integer answerId;
 }
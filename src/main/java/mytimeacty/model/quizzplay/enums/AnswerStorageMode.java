@@ -0,0 +1,15 @@
+package mytimeacty.model.quizzplay.enums;
+
+/**
+ * How the answers chosen during a quizz play are stored.
+ */
+public enum AnswerStorageMode {
+	/**
+	 * One user_answers row per answer.
+	 */
+	ROWS,
+	/**
+	 * All the answers in the answers_encoded column of the play, see AnswerIdsCodec.
+	 */
+	ENCODED
+}
@@ -47,6 +47,9 @@ public class User {
     
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant  createdAt;
+    
+    @Column(name = "token_epoch")
+    private Long tokenEpoch;
 
     @PrePersist
     private void onCreate() {
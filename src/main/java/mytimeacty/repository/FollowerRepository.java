@@ -6,6 +6,7 @@ import mytimeacty.model.users.User;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -30,6 +31,40 @@ public interface FollowerRepository extends JpaRepository<Follower, FollowerId>
      */
     Page<Follower> findByFollowerIdUser(Integer idFollower, Pageable pageable);
     
+    /**
+     * Retrieves a slice of Follower entities for users who follow a specific user, without counting them.
+     * 
+     * @param idUserFollowed the ID of the user being followed.
+     * @param pageable the Pageable object containing pagination and sorting information.
+     * @return a Slice containing a list of Follower entities where the specified user is followed.
+     */
+    Slice<Follower> findSliceByUserFollowedIdUser(Integer idUserFollowed, Pageable pageable);
+    
+    /**
+     * Retrieves a slice of Follower entities for users followed by a specific user, without counting them.
+     * 
+     * @param idFollower the ID of the user who is following others.
+     * @param pageable the Pageable object containing pagination and sorting information.
+     * @return a Slice containing a list of Follower entities where the specified user is following.
+     */
+    Slice<Follower> findSliceByFollowerIdUser(Integer idFollower, Pageable pageable);
+    
+    /**
+     * Counts the followers of a user by the ID of the user.
+     * 
+     * @param idUserFollowed the ID of the user being followed.
+     * @return the number of followers of the user.
+     */
+    long countByUserFollowedIdUser(Integer idUserFollowed);
+    
+    /**
+     * Counts the followings of a user by the ID of the user.
+     * 
+     * @param idFollower the ID of the user who is following others.
+     * @return the number of users followed by the user.
+     */
+    long countByFollowerIdUser(Integer idFollower);
+    
     /**
      * Counts the number of followers for a given user entity.
      * 
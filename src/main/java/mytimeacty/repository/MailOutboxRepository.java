@@ -0,0 +1,39 @@
+package mytimeacty.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import mytimeacty.model.mail.MailOutbox;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+	/**
+	 * Locks a batch of pending mails that are due to be sent and not leased by a dispatcher.
+	 * Rows already locked by another node are skipped, so several dispatchers never claim the same mail.
+	 * 
+	 * @param now the current instant.
+	 * @param limit the maximum number of mails to lock.
+	 * @return the locked MailOutbox entities, oldest first.
+	 */
+	@Query(value = "SELECT * FROM mytimeacty.mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+			+ "AND (in_flight_until IS NULL OR in_flight_until <= :now) "
+			+ "ORDER BY id_mail LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<MailOutbox> lockDueBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+	/**
+	 * Deletes the mails sent before the given instant.
+	 * 
+	 * @param before the instant before which sent mails are deleted.
+	 * @return the number of deleted mails.
+	 */
+	@Modifying
+	@Query("DELETE FROM MailOutbox m WHERE m.status = mytimeacty.model.mail.enums.MailOutboxStatus.SENT AND m.sentAt < :before")
+	int deleteSentBefore(@Param("before") Instant before);
+}
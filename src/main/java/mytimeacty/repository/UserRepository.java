@@ -2,8 +2,9 @@ package mytimeacty.repository;
 
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import mytimeacty.model.users.User;
@@ -13,27 +14,60 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
 	/**
 	 * Retrieves a User entity by their email, ignoring case sensitivity.
+	 * The comparison is made on lower(email) so that it is served by the ux_users_lower_email index.
 	 * 
 	 * @param email the email of the user to search for.
 	 * @return an Optional containing the User entity if found, otherwise empty.
 	 */
-	Optional<User> findByEmailIgnoreCase(String email);
+	@Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+	Optional<User> findByEmailIgnoreCase(@Param("email") String email);
 
 	/**
 	 * Retrieves a User entity by their nickname, ignoring case sensitivity.
+	 * The comparison is made on lower(nickname) so that it is served by the ux_users_lower_nickname index.
 	 * 
 	 * @param nickname the nickname of the user to search for.
 	 * @return an Optional containing the User entity if found, otherwise empty.
 	 */
-    Optional<User> findByNicknameIgnoreCase(String nickname);
+	@Query("SELECT u FROM User u WHERE lower(u.nickname) = lower(:nickname)")
+    Optional<User> findByNicknameIgnoreCase(@Param("nickname") String nickname);
+    
+    /**
+     * Retrieves the User entities whose email or nickname matches the given login, ignoring case sensitivity.
+     * Both conditions are served by the lower() expression indexes in a single query.
+     * 
+     * @param login the email or nickname to search for.
+     * @return a List of at most two User entities, one matching by email and one matching by nickname.
+     */
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:login) OR lower(u.nickname) = lower(:login)")
+    List<User> findByEmailOrNicknameIgnoreCase(@Param("login") String login);
 	
     /**
-     * Retrieves a list of User entities whose nicknames contain the specified string, ignoring case sensitivity, and applies pagination.
+     * Retrieves the activated User entities whose nicknames contain the specified pattern, ignoring case sensitivity,
+     * excluding the given role. The contains-match on lower(nickname) is served by the ix_users_lower_nickname_trgm
+     * trigram index, and the results are ordered by similarity to the searched nickname, then by nickname.
+     * 
+     * @param pattern the lower-cased searched nickname, with the LIKE wildcards escaped.
+     * @param nickname the lower-cased searched nickname, used to rank the results.
+     * @param role the role to exclude.
+     * @param limit the maximum number of users to retrieve.
+     * @param offset the number of users to skip.
+     * @return a List of User entities whose nicknames contain the specified pattern.
+     */
+    @Query(value = "SELECT * FROM mytimeacty.users u "
+    		+ "WHERE lower(u.nickname) LIKE '%' || :pattern || '%' ESCAPE '\\' "
+    		+ "AND u.user_role <> :role AND u.is_activated = true "
+    		+ "ORDER BY public.similarity(lower(u.nickname), :nickname) DESC, u.nickname ASC "
+    		+ "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<User> searchActivatedByNickname(@Param("pattern") String pattern, @Param("nickname") String nickname, 
+    		@Param("role") String role, @Param("limit") int limit, @Param("offset") long offset);
+    
+    /**
+     * Retrieves the User entities whose token epoch was bumped after the given epoch.
      * 
-     * @param nickname the string to search for within user nicknames.
-     * @param pageable the Pageable object containing pagination and sorting information.
-     * @return a List of User entities whose nicknames contain the specified string.
+     * @param tokenEpoch the epoch (in milliseconds) after which the token epoch must have been bumped.
+     * @return a List of User entities whose tokens issued before their token epoch are revoked.
      */
-    List<User> findByNicknameContainingIgnoreCaseAndUserRoleNotAndIsActivatedTrue(String nickname, String role, Pageable pageable);
+    List<User> findByTokenEpochGreaterThan(Long tokenEpoch);
 
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package mytimeacty.repository.quizz;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import mytimeacty.model.quizzes.Quizz;
@@ -22,4 +28,26 @@ public interface QuizzLikeRepository extends JpaRepository<QuizzLike, QuizzLikeI
 	boolean existsByQuizzAndUser(Quizz quizz, User user);
 	
 	long countByQuizzCreatorAndQuizzIsVisible(User user, Boolean isVisible);
-}
\ No newline at end of file
+	
+	/**
+	 * Retrieves, among the given quizzes, the IDs of the ones liked by the user.
+	 * Used to resolve the flag of a whole page of quizzes with a single query.
+	 * 
+	 * @param userId the ID of the user.
+	 * @param quizzIds the IDs of the quizzes to check.
+	 * @return the IDs of the quizzes liked by the user.
+	 */
+	@Query("SELECT e.id.idQuizz FROM QuizzLike e WHERE e.id.idUser = :userId AND e.id.idQuizz IN :quizzIds")
+	Set<Integer> findQuizzIdsByUserIdAndQuizzIdIn(@Param("userId") Integer userId, @Param("quizzIds") Collection<Integer> quizzIds);
+	
+	/**
+	 * Deletes the like of a quizz by a user.
+	 * 
+	 * @param quizzId the ID of the quizz.
+	 * @param userId the ID of the user.
+	 * @return the number of deleted rows, 0 if the user had not liked the quizz.
+	 */
+	@Modifying
+	@Query("DELETE FROM QuizzLike e WHERE e.id.idQuizz = :quizzId AND e.id.idUser = :userId")
+	int deleteByQuizzIdAndUserId(@Param("quizzId") Integer quizzId, @Param("userId") Integer userId);
+}
@@ -1,9 +1,24 @@
 package mytimeacty.repository.quizz;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import mytimeacty.model.quizzes.QuizzQuestion;
 
 @Repository
-public interface QuizzQuestionRepository extends JpaRepository<QuizzQuestion, Integer> {}
\ No newline at end of file
+public interface QuizzQuestionRepository extends JpaRepository<QuizzQuestion, Integer> {
+	
+	/**
+	 * Retrieves the answer key of a quizz: one row per answer holding the ID of the question, the ID of the answer
+	 * and whether it is correct. A question without any answer has a row with a null answer.
+	 * 
+	 * @param quizzId the ID of the quizz.
+	 * @return the rows of the answer key, empty if the quizz has no question.
+	 */
+	@Query("SELECT q.idQuestion, a.idAnswer, a.isCorrect FROM QuizzQuestion q LEFT JOIN q.quizzAnswers a WHERE q.quizz.idQuizz = :quizzId")
+	List<Object[]> findAnswerKeyRowsByQuizzId(@Param("quizzId") Integer quizzId);
+}
@@ -1,13 +1,34 @@
 package mytimeacty.repository.quizz;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import mytimeacty.model.quizzes.Quizz;
 import mytimeacty.model.users.User;
 
 @Repository
-public interface QuizzRepository extends JpaRepository<Quizz, Integer>, JpaSpecificationExecutor<Quizz> {
+public interface QuizzRepository extends JpaRepository<Quizz, Integer>, JpaSpecificationExecutor<Quizz>, QuizzRepositoryCustom {
 	long countByCreatorAndIsVisible(User creator, Boolean isVisible);
+	
+	/**
+	 * Retrieves a quizz with its creator, category, level, questions and answers in a single query.
+	 * The questions are ordered by their number, and the answers of each question by theirs.
+	 * 
+	 * @param quizzId the ID of the quizz.
+	 * @return an Optional containing the quizz with its whole aggregate loaded, or empty if not found.
+	 */
+	@Query("SELECT q FROM Quizz q "
+			+ "JOIN FETCH q.creator "
+			+ "JOIN FETCH q.category "
+			+ "JOIN FETCH q.level "
+			+ "LEFT JOIN FETCH q.quizzQuestions qq "
+			+ "LEFT JOIN FETCH qq.quizzAnswers qa "
+			+ "WHERE q.idQuizz = :quizzId "
+			+ "ORDER BY qq.numQuestion, qa.numAnswer")
+	Optional<Quizz> findWithQuestionsAndAnswersById(@Param("quizzId") Integer quizzId);
 }
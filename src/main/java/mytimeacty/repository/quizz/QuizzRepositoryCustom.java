@@ -0,0 +1,46 @@
+package mytimeacty.repository.quizz;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import mytimeacty.model.quizzes.Quizz;
+import mytimeacty.model.quizzes.dto.QuizzCardDTO;
+
+public interface QuizzRepositoryCustom {
+
+	/**
+	 * Retrieves a page of quizz cards matching the specification.
+	 * Only the card columns are selected, so no Quizz entity is loaded or dirty-checked.
+	 * 
+	 * @param spec the specification to match, built with QuizzSpecifications.
+	 * @param pageable the pagination and sorting information.
+	 * @return a page of QuizzCardDTO records.
+	 */
+	Page<QuizzCardDTO> findCards(Specification<Quizz> spec, Pageable pageable);
+	
+	/**
+	 * Retrieves the first quizz cards matching the specification in the given order, without any count query.
+	 * Used by the cursor pagination, whose position is part of the specification.
+	 * 
+	 * @param spec the specification to match, built with QuizzSpecifications.
+	 * @param sort the order of the cards.
+	 * @param limit the maximum number of cards to retrieve.
+	 * @return a list of QuizzCardDTO records.
+	 */
+	List<QuizzCardDTO> findCards(Specification<Quizz> spec, Sort sort, int limit);
+	
+	/**
+	 * Retrieves a slice of quizz cards matching the specification, without any count query.
+	 * One extra card is read to know whether another slice follows.
+	 * 
+	 * @param spec the specification to match, built with QuizzSpecifications.
+	 * @param pageable the pagination and sorting information.
+	 * @return a slice of QuizzCardDTO records.
+	 */
+	Slice<QuizzCardDTO> findCardSlice(Specification<Quizz> spec, Pageable pageable);
+}
@@ -0,0 +1,114 @@
+package mytimeacty.repository.quizz;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import mytimeacty.model.quizzes.Quizz;
+import mytimeacty.model.quizzes.QuizzCategory;
+import mytimeacty.model.quizzes.QuizzLevel;
+import mytimeacty.model.quizzes.dto.QuizzCardDTO;
+import mytimeacty.model.users.User;
+
+public class QuizzRepositoryImpl implements QuizzRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Page<QuizzCardDTO> findCards(Specification<Quizz> spec, Pageable pageable) {
+		TypedQuery<QuizzCardDTO> typedQuery = createCardQuery(spec, pageable.getSort());
+		if (pageable.isPaged()) {
+			typedQuery.setFirstResult((int) pageable.getOffset());
+			typedQuery.setMaxResults(pageable.getPageSize());
+		}
+		List<QuizzCardDTO> content = typedQuery.getResultList();
+
+		// The count query only runs when the total cannot be deduced from the page itself
+		return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+	}
+
+	@Override
+	public List<QuizzCardDTO> findCards(Specification<Quizz> spec, Sort sort, int limit) {
+		return createCardQuery(spec, sort)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	@Override
+	public Slice<QuizzCardDTO> findCardSlice(Specification<Quizz> spec, Pageable pageable) {
+		List<QuizzCardDTO> content = createCardQuery(spec, pageable.getSort())
+				.setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize() + 1)
+				.getResultList();
+
+		boolean hasNext = content.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+	}
+
+	private TypedQuery<QuizzCardDTO> createCardQuery(Specification<Quizz> spec, Sort sort) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<QuizzCardDTO> query = builder.createQuery(QuizzCardDTO.class);
+		Root<Quizz> root = query.from(Quizz.class);
+		Join<Quizz, User> creator = root.join("creator");
+		Join<Quizz, QuizzCategory> category = root.join("category");
+		Join<Quizz, QuizzLevel> level = root.join("level");
+
+		query.select(builder.construct(QuizzCardDTO.class,
+				root.get("idQuizz"),
+				root.get("title"),
+				creator.get("idUser"),
+				creator.get("nickname"),
+				category.get("idCategory"),
+				category.get("label"),
+				level.get("idLevel"),
+				level.get("label"),
+				root.get("createdAt"),
+				root.get("likeCount"),
+				root.get("favouriteCount"),
+				root.get("playCount")));
+		applySpecification(spec, root, query, builder);
+		if (sort.isSorted()) {
+			query.orderBy(QueryUtils.toOrders(sort, root, builder));
+		}
+
+		return entityManager.createQuery(query);
+	}
+
+	private long count(Specification<Quizz> spec) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+		CriteriaQuery<Long> query = builder.createQuery(Long.class);
+		Root<Quizz> root = query.from(Quizz.class);
+		query.select(builder.count(root));
+		applySpecification(spec, root, query, builder);
+
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	private static void applySpecification(Specification<Quizz> spec, Root<Quizz> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+		if (spec == null) {
+			return;
+		}
+		Predicate predicate = spec.toPredicate(root, query, builder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+	}
+}
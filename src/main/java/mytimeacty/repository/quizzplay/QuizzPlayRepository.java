@@ -1,10 +1,15 @@
 package mytimeacty.repository.quizzplay;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import mytimeacty.model.quizzplay.QuizzPlay;
@@ -20,4 +25,62 @@ public interface QuizzPlayRepository extends JpaRepository<QuizzPlay, Integer> {
 	 * @return a Page containing a list of QuizzPlay entities associated with the specified quizz.
 	 */
 	Page<QuizzPlay> findByQuizzIdQuizz(Integer quizzId, Pageable pageable);
+	
+	/**
+	 * Finds a slice of QuizzPlay entities associated with a specific quizz, without counting them.
+	 * 
+	 * @param quizzId the ID of the quizz for which to find QuizzPlay entities.
+	 * @param pageable the Pageable object containing pagination and sorting information.
+	 * @return a Slice containing a list of QuizzPlay entities associated with the specified quizz.
+	 */
+	Slice<QuizzPlay> findSliceByQuizzIdQuizz(Integer quizzId, Pageable pageable);
+	
+	/**
+	 * Counts the QuizzPlay entities associated with a specific quizz.
+	 * 
+	 * @param quizzId the ID of the quizz.
+	 * @return the number of plays of the quizz.
+	 */
+	long countByQuizzIdQuizz(Integer quizzId);
+	
+	/**
+	 * Counts the plays of each quizz since the given instant, grouped in time buckets.
+	 * Each row holds the ID of the quizz, the index of the bucket (epoch milliseconds divided by the bucket width)
+	 * and the number of plays in that bucket.
+	 * 
+	 * @param since the instant from which plays are counted.
+	 * @param bucketMillis the width of a bucket, in milliseconds.
+	 * @return the rows of counts per quizz and bucket.
+	 */
+	@Query(value = "SELECT id_quizz, FLOOR(EXTRACT(EPOCH FROM played_at) * 1000 / :bucketMillis) AS bucket, COUNT(*) "
+			+ "FROM mytimeacty.quizz_play WHERE played_at >= :since GROUP BY 1, 2", nativeQuery = true)
+	List<Object[]> countPlaysByQuizzAndBucketSince(@Param("since") Instant since, @Param("bucketMillis") long bucketMillis);
+	
+	/**
+	 * Retrieves the best play of each player of a quizz, the earliest one in case of a tie,
+	 * ranked by score and then by date, limited to the top of the leaderboard.
+	 * 
+	 * @param quizzId the ID of the quizz.
+	 * @param limit the maximum number of players to return.
+	 * @return the best play of each player, the best first.
+	 */
+	@Query(value = "SELECT best.id_player AS playerId, u.nickname AS playerNickname, best.id_quizz_play AS idQuizzPlay, "
+			+ "best.score AS score, best.played_at AS playedAt "
+			+ "FROM (SELECT DISTINCT ON (p.id_player) p.id_player, p.id_quizz_play, p.score, p.played_at "
+			+ "      FROM mytimeacty.quizz_play p WHERE p.id_quizz = :quizzId "
+			+ "      ORDER BY p.id_player, p.score DESC, p.played_at ASC) best "
+			+ "JOIN mytimeacty.users u ON u.id_user = best.id_player "
+			+ "ORDER BY best.score DESC, best.played_at ASC, best.id_player ASC LIMIT :limit", nativeQuery = true)
+	List<LeaderboardRow> findLeaderboard(@Param("quizzId") Integer quizzId, @Param("limit") int limit);
+	
+	/**
+	 * Best play of a player, as read by findLeaderboard.
+	 */
+	interface LeaderboardRow {
+		Integer getPlayerId();
+		String getPlayerNickname();
+		Integer getIdQuizzPlay();
+		Double getScore();
+		Instant getPlayedAt();
+	}
 }
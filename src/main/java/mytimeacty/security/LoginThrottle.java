@@ -0,0 +1,199 @@
+package mytimeacty.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import mytimeacty.exception.TooManyRequestsException;
+
+/**
+ * Throttles login attempts per client IP, per nickname/email and per nickname/email from a client IP with token buckets.
+ *
+ * Buckets are lock-free and kept in size-bounded caches that evict the keys idle for a while,
+ * so the memory footprint stays bounded whatever the number of distinct IPs or logins tried.
+ * A throttled attempt is rejected before the user lookup and the BCrypt comparison.
+ *
+ * The login bucket is keyed on the nickname/email alone, so credential stuffing against one account from many IPs
+ * is limited as a whole. Its capacity and refill are higher than those of the bucket keyed on the nickname/email
+ * together with the client IP, which throttles a single sprayer first: spraying wrong passwords for someone's
+ * nickname from one IP locks out the sprayer long before the owner of the account. A successful login gives
+ * its tokens back, so legitimate users sharing an IP are never throttled by their own logins.
+ * The client IP is the one resolved from the forwarded headers of the trusted reverse proxy
+ * (server.forward-headers-strategy), otherwise every client behind the proxy would share one bucket.
+ */
+@Component
+public class LoginThrottle {
+
+	private final Cache<String, TokenBucket> ipBuckets;
+	private final Cache<String, TokenBucket> loginBuckets;
+	private final Cache<LoginKey, TokenBucket> loginIpBuckets;
+
+	private final int ipCapacity;
+	private final double ipRefillPerNano;
+	private final int loginCapacity;
+	private final double loginRefillPerNano;
+	private final int loginIpCapacity;
+	private final double loginIpRefillPerNano;
+
+	private final Counter allowedCounter;
+	private final Counter ipRejectedCounter;
+	private final Counter loginRejectedCounter;
+	private final Counter loginIpRejectedCounter;
+
+	private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+	public LoginThrottle(@Value("${login.throttle.ip.capacity:20}") int ipCapacity,
+						 @Value("${login.throttle.ip.refill-per-minute:10}") int ipRefillPerMinute,
+						 @Value("${login.throttle.login.capacity:50}") int loginCapacity,
+						 @Value("${login.throttle.login.refill-per-minute:20}") int loginRefillPerMinute,
+						 @Value("${login.throttle.login-ip.capacity:5}") int loginIpCapacity,
+						 @Value("${login.throttle.login-ip.refill-per-minute:5}") int loginIpRefillPerMinute,
+						 @Value("${login.throttle.max-keys:100000}") long maxKeys,
+						 @Value("${login.throttle.idle-minutes:15}") long idleMinutes,
+						 MeterRegistry meterRegistry) {
+		this.ipCapacity = ipCapacity;
+		this.ipRefillPerNano = ipRefillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+		this.loginCapacity = loginCapacity;
+		this.loginRefillPerNano = loginRefillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+		this.loginIpCapacity = loginIpCapacity;
+		this.loginIpRefillPerNano = loginIpRefillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+
+		this.ipBuckets = Caffeine.newBuilder()
+				.maximumSize(maxKeys)
+				.expireAfterAccess(Duration.ofMinutes(idleMinutes))
+				.build();
+		this.loginBuckets = Caffeine.newBuilder()
+				.maximumSize(maxKeys)
+				.expireAfterAccess(Duration.ofMinutes(idleMinutes))
+				.build();
+		this.loginIpBuckets = Caffeine.newBuilder()
+				.maximumSize(maxKeys)
+				.expireAfterAccess(Duration.ofMinutes(idleMinutes))
+				.build();
+
+		this.allowedCounter = Counter.builder("login.throttle.attempts")
+				.tag("outcome", "allowed")
+				.register(meterRegistry);
+		this.ipRejectedCounter = Counter.builder("login.throttle.attempts")
+				.tag("outcome", "rejected").tag("key", "ip")
+				.description("Login attempts rejected before the user lookup and the BCrypt comparison")
+				.register(meterRegistry);
+		this.loginRejectedCounter = Counter.builder("login.throttle.attempts")
+				.tag("outcome", "rejected").tag("key", "login")
+				.description("Login attempts rejected before the user lookup and the BCrypt comparison")
+				.register(meterRegistry);
+		this.loginIpRejectedCounter = Counter.builder("login.throttle.attempts")
+				.tag("outcome", "rejected").tag("key", "login-ip")
+				.description("Login attempts rejected before the user lookup and the BCrypt comparison")
+				.register(meterRegistry);
+		Gauge.builder("login.throttle.keys", ipBuckets, Cache::estimatedSize).tag("key", "ip").register(meterRegistry);
+		Gauge.builder("login.throttle.keys", loginBuckets, Cache::estimatedSize).tag("key", "login").register(meterRegistry);
+		Gauge.builder("login.throttle.keys", loginIpBuckets, Cache::estimatedSize).tag("key", "login-ip").register(meterRegistry);
+	}
+
+	/**
+	 * Consumes a login attempt for the client IP, then for the nickname/email from this IP,
+	 * then for the nickname/email from any IP.
+	 *
+	 * @param clientIp the IP address of the client.
+	 * @param nicknameOrEmail the nickname or email used to log in.
+	 * @throws TooManyRequestsException if any of the buckets is empty.
+	 */
+	public void checkLoginAttempt(String clientIp, String nicknameOrEmail) {
+		long now = System.nanoTime();
+
+		TokenBucket ipBucket = ipBuckets.get(clientIp, key -> new TokenBucket(ipCapacity, now));
+		if (!ipBucket.tryConsume(ipCapacity, ipRefillPerNano, now)) {
+			ipRejectedCounter.increment();
+			logger.warn("Method checkLoginAttempt: Too many login attempts from IP '{}'", clientIp);
+			throw new TooManyRequestsException("Too many login attempts, please try again later");
+		}
+
+		String login = nicknameOrEmail.toLowerCase();
+		TokenBucket loginIpBucket = loginIpBuckets.get(new LoginKey(login, clientIp), key -> new TokenBucket(loginIpCapacity, now));
+		if (!loginIpBucket.tryConsume(loginIpCapacity, loginIpRefillPerNano, now)) {
+			loginIpRejectedCounter.increment();
+			logger.warn("Method checkLoginAttempt: Too many login attempts for nickname/email '{}' from IP '{}'", nicknameOrEmail, clientIp);
+			throw new TooManyRequestsException("Too many login attempts, please try again later");
+		}
+
+		TokenBucket loginBucket = loginBuckets.get(login, key -> new TokenBucket(loginCapacity, now));
+		if (!loginBucket.tryConsume(loginCapacity, loginRefillPerNano, now)) {
+			loginRejectedCounter.increment();
+			logger.warn("Method checkLoginAttempt: Too many login attempts for nickname/email '{}'", nicknameOrEmail);
+			throw new TooManyRequestsException("Too many login attempts, please try again later");
+		}
+
+		allowedCounter.increment();
+	}
+
+	/**
+	 * Gives back the tokens consumed by a login attempt that succeeded, so that only failed attempts count.
+	 *
+	 * @param clientIp the IP address of the client.
+	 * @param nicknameOrEmail the nickname or email used to log in.
+	 */
+	public void recordSuccessfulLogin(String clientIp, String nicknameOrEmail) {
+		TokenBucket ipBucket = ipBuckets.getIfPresent(clientIp);
+		if (ipBucket != null) {
+			ipBucket.refund(ipCapacity);
+		}
+		String login = nicknameOrEmail.toLowerCase();
+		TokenBucket loginIpBucket = loginIpBuckets.getIfPresent(new LoginKey(login, clientIp));
+		if (loginIpBucket != null) {
+			loginIpBucket.refund(loginIpCapacity);
+		}
+		TokenBucket loginBucket = loginBuckets.getIfPresent(login);
+		if (loginBucket != null) {
+			loginBucket.refund(loginCapacity);
+		}
+	}
+
+	/**
+	 * Key of a login-ip bucket: the lower-cased nickname/email and the IP it is tried from.
+	 */
+	private record LoginKey(String login, String clientIp) {}
+
+	/**
+	 * Token bucket whose state is swapped atomically, so concurrent attempts never take a lock.
+	 */
+	private static final class TokenBucket {
+
+		private record State(double tokens, long refilledAt) {}
+
+		private final AtomicReference<State> state;
+
+		TokenBucket(int capacity, long now) {
+			this.state = new AtomicReference<>(new State(capacity, now));
+		}
+
+		boolean tryConsume(int capacity, double refillPerNano, long now) {
+			while (true) {
+				State current = state.get();
+				long elapsed = Math.max(0, now - current.refilledAt());
+				double tokens = Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+				if (tokens < 1) {
+					return false;
+				}
+				if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAt())))) {
+					return true;
+				}
+			}
+		}
+
+		void refund(int capacity) {
+			state.updateAndGet(current -> new State(Math.min(capacity, current.tokens() + 1), current.refilledAt()));
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package mytimeacty.security;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mytimeacty.model.users.dto.UserDTO;
+import mytimeacty.utils.TransactionUtils;
+
+@Component
+public class PrincipalCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+	private final Cache<Integer, UserDTO> cache;
+
+	public PrincipalCache(@Value("${cache.principal.max-size:10000}") long maxSize,
+						  @Value("${cache.principal.ttl-seconds:60}") long ttlSeconds,
+						  MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "principals");
+	}
+
+	/**
+	 * Retrieves the principal of a user from the cache, loading it on a miss.
+	 *
+	 * @param userId the ID of the user, as found in the JWT "id" claim.
+	 * @param loader the function used to load the user when it is not cached.
+	 * @return the UserDTO of the user.
+	 */
+	public UserDTO get(int userId, IntFunction<UserDTO> loader) {
+		return cache.get(userId, id -> loader.apply(id));
+	}
+
+	/**
+	 * Evicts the principal of a user right away and once more after the current transaction commits,
+	 * so that a request running concurrently cannot put back the state read before the commit.
+	 *
+	 * @param userId the ID of the user to evict.
+	 */
+	public void invalidate(int userId) {
+		cache.invalidate(userId);
+		TransactionUtils.runAfterCommit(() -> cache.invalidate(userId));
+		logger.info("Method invalidate: Principal of user with ID {} evicted", userId);
+	}
+}
@@ -0,0 +1,167 @@
+package mytimeacty.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import mytimeacty.model.users.User;
+import mytimeacty.repository.UserRepository;
+import mytimeacty.service.JWT.JWTService;
+
+/**
+ * In-memory table of revoked token epochs used by the stateless authorization mode.
+ *
+ * Each entry maps a user ID to the token epoch that was current when their ban or role change happened:
+ * every token carrying an older epoch is revoked. A Bloom filter over the user IDs is checked first,
+ * so the common case of a user who was never revoked costs a few bit reads and no map lookup.
+ *
+ * Entries are kept as long as a token issued before them can still be valid, and the table is refreshed
+ * from the database on a fixed delay so that revocations made on other nodes apply within that bound.
+ * The retention is derived from the token lifetime, plus the clock skew accepted by the decoder and one
+ * refresh interval, so that an entry never disappears while a token it revokes is still accepted.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+	private static final int BLOOM_BITS = 1 << 16;
+	private static final int BLOOM_HASHES = 3;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Value("${jwt.stateless.enabled:false}")
+	private boolean statelessEnabled;
+
+	@Value("${jwt.stateless.revocation-refresh-ms:30000}")
+	private long refreshDelayMs;
+
+	private final Map<Integer, Long> revokedEpochs = new ConcurrentHashMap<>();
+
+	private volatile AtomicLongArray bloom = new AtomicLongArray(BLOOM_BITS / 64);
+
+	private volatile long lastRefreshEpoch;
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+	/**
+	 * Loads the revocations still relevant at startup, when the stateless mode is enabled.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		if (!statelessEnabled) {
+			return;
+		}
+		lastRefreshEpoch = System.currentTimeMillis() - retention().toMillis();
+		refresh();
+	}
+
+	/**
+	 * Records that every token of the user issued with an epoch older than the given one is revoked.
+	 *
+	 * @param userId the ID of the user whose tokens are revoked.
+	 * @param tokenEpoch the new token epoch of the user.
+	 */
+	public void revoke(int userId, long tokenEpoch) {
+		revokedEpochs.merge(userId, tokenEpoch, Math::max);
+		addToBloom(bloom, userId);
+		logger.info("Method revoke: Tokens of user with ID {} issued before epoch {} revoked", userId, tokenEpoch);
+	}
+
+	/**
+	 * Checks whether a token carrying the given epoch has been revoked for the user.
+	 *
+	 * @param userId the ID of the user, as found in the JWT "id" claim.
+	 * @param tokenEpoch the epoch found in the JWT "epoch" claim.
+	 * @return true if the token has been revoked, otherwise false.
+	 */
+	public boolean isRevoked(int userId, long tokenEpoch) {
+		if (!mightContain(bloom, userId)) {
+			return false;
+		}
+		Long revokedEpoch = revokedEpochs.get(userId);
+		return revokedEpoch != null && tokenEpoch < revokedEpoch;
+	}
+
+	/**
+	 * Pulls the revocations recorded in the database since the last refresh, including the ones made by other nodes.
+	 * The refresh delay is the upper bound for a ban to take effect cluster-wide.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.stateless.revocation-refresh-ms:30000}")
+	public void refresh() {
+		if (!statelessEnabled) {
+			return;
+		}
+		// Overlap the previous window to tolerate small clock differences between nodes
+		long since = lastRefreshEpoch - 2 * refreshDelayMs;
+		long now = System.currentTimeMillis();
+
+		for (User user : userRepository.findByTokenEpochGreaterThan(since)) {
+			revokedEpochs.merge(user.getIdUser(), user.getTokenEpoch(), Math::max);
+			addToBloom(bloom, user.getIdUser());
+		}
+		lastRefreshEpoch = now;
+	}
+
+	/**
+	 * Drops the revocations older than the retention and rebuilds the Bloom filter,
+	 * which keeps the table and the false positive rate small.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.stateless.revocation-prune-ms:600000}")
+	public void prune() {
+		long threshold = System.currentTimeMillis() - retention().toMillis();
+		revokedEpochs.values().removeIf(epoch -> epoch < threshold);
+
+		AtomicLongArray rebuilt = new AtomicLongArray(BLOOM_BITS / 64);
+		revokedEpochs.keySet().forEach(userId -> addToBloom(rebuilt, userId));
+		// Entries revoked while rebuilding are added again once the new filter is published
+		bloom = rebuilt;
+		revokedEpochs.keySet().forEach(userId -> addToBloom(rebuilt, userId));
+	}
+
+	/**
+	 * Computes how long a revocation must be kept: a token issued just before it stays accepted for its
+	 * lifetime plus the clock skew of the decoder, and a revocation of another node is only seen one
+	 * refresh interval after it was made.
+	 *
+	 * @return the retention of a revocation entry.
+	 */
+	private Duration retention() {
+		return JWTService.TOKEN_LIFETIME
+				.plus(JWTService.MAX_CLOCK_SKEW)
+				.plusMillis(refreshDelayMs);
+	}
+
+	private static void addToBloom(AtomicLongArray bits, int userId) {
+		for (int i = 0; i < BLOOM_HASHES; i++) {
+			int bit = bloomIndex(userId, i);
+			long mask = 1L << (bit & 63);
+			bits.getAndUpdate(bit >>> 6, word -> word | mask);
+		}
+	}
+
+	private static boolean mightContain(AtomicLongArray bits, int userId) {
+		for (int i = 0; i < BLOOM_HASHES; i++) {
+			int bit = bloomIndex(userId, i);
+			if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int bloomIndex(int userId, int seed) {
+		long hash = (userId + 0x9E3779B97F4A7C15L * (seed + 1)) * 0xBF58476D1CE4E5B9L;
+		hash ^= hash >>> 31;
+		return (int) (hash & (BLOOM_BITS - 1));
+	}
+}
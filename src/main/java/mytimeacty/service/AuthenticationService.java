@@ -1,17 +1,19 @@
 package mytimeacty.service;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 
 import javax.naming.AuthenticationException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import mytimeacty.exception.ForbiddenException;
+import mytimeacty.exception.ServiceUnavailableException;
+import mytimeacty.exception.TooManyRequestsException;
 import mytimeacty.exception.UserNotFoundException;
 import mytimeacty.mapper.UserMapper;
 import mytimeacty.model.auth.LoginDTO;
@@ -20,6 +22,8 @@ import mytimeacty.model.users.dto.UserDTO;
 import mytimeacty.model.users.dto.creation.UserCreateDTO;
 import mytimeacty.model.users.enums.UserRole;
 import mytimeacty.repository.UserRepository;
+import mytimeacty.security.LoginThrottle;
+import mytimeacty.service.Bcrypt.BcryptService;
 import mytimeacty.service.JWT.JWTService;
 import mytimeacty.service.mail.MailService;
 
@@ -33,7 +37,7 @@ public class AuthenticationService {
 	private UserService userService;
 	
 	@Autowired
-    private BCryptPasswordEncoder bcryptPasswordEncoder;
+    private BcryptService bcryptService;
 	
 	@Autowired
     private JWTService jwtService;
@@ -41,30 +45,47 @@ public class AuthenticationService {
 	@Autowired
 	private MailService mailService;
 	
+	@Autowired
+	private LoginThrottle loginThrottle;
+	
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	
 	private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
 	
 	/**
 	 * Authenticates a user based on the provided login credentials.
+	 * Attempts are throttled per client IP and per nickname/email before any lookup or password check,
+	 * and a successful attempt gives its tokens back.
 	 *
 	 * @param loginDTO contains the nickname or email and password for authentication
+	 * @param clientIp the IP address of the client trying to log in
 	 * @return a JWT token if authentication is successful
 	 * @throws UserNotFoundException if the user with the given nickname or email is not found
 	 * @throws AuthenticationException if the credentials are invalid or the user is banned
+	 * @throws ServiceUnavailableException if the password hashing executor is saturated
+	 * @throws TooManyRequestsException if too many login attempts were made from this IP or for this nickname/email
 	 */
-	public String authenticateUser(LoginDTO loginDTO) throws UserNotFoundException, AuthenticationException {
+	public String authenticateUser(LoginDTO loginDTO, String clientIp) throws UserNotFoundException, AuthenticationException {
     	logger.info("Entering method authenticateUser: Nickname/email '{}'", loginDTO.getNicknameOrEmail());
 		
 		// Trim the input to remove leading and trailing whitespace
 		loginDTO.setNicknameOrEmail(loginDTO.getNicknameOrEmail().trim()); 
 		
-		// Attempt to find the user by email or nickname
-		User user = userRepository.findByEmailIgnoreCase(loginDTO.getNicknameOrEmail())
-                .orElseGet(() -> userRepository.findByNicknameIgnoreCase(loginDTO.getNicknameOrEmail())
+		// Reject throttled attempts before spending a query and a BCrypt comparison on them
+		loginThrottle.checkLoginAttempt(clientIp, loginDTO.getNicknameOrEmail());
+		
+		// Find the user by email or nickname in a single query, an email match taking precedence
+		List<User> matchingUsers = userRepository.findByEmailOrNicknameIgnoreCase(loginDTO.getNicknameOrEmail());
+		User user = matchingUsers.stream()
+				.filter(u -> u.getEmail().equalsIgnoreCase(loginDTO.getNicknameOrEmail()))
+				.findFirst()
+				.or(() -> matchingUsers.stream().findFirst())
                 .orElseThrow(() -> {
                 	logger.warn("Method authenticateUser: User with nickname or email '{}' not found",
                 			loginDTO.getNicknameOrEmail());
                 	return new UserNotFoundException("User not found");
-                }));
+                });
 		
 		// Check if the user is banned
 		if(user.getUserRole().equals(UserRole.BANNED.getRole())) {
@@ -81,14 +102,26 @@ public class AuthenticationService {
 		}
 
 		// Validate the provided password
-        if (!bcryptPasswordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        if (!bcryptService.checkPassword(loginDTO.getPassword(), user.getPassword())) {
         	logger.warn("Method authenticateUser: User credentials are invalid for user with nickname '{}'",
         			user.getNickname());
         	throw new AuthenticationException("Invalid credentials");
         }
         
+        // A successful login does not count against the throttle
+        loginThrottle.recordSuccessfulLogin(clientIp, loginDTO.getNicknameOrEmail());
+        
+        // Hash the password again if it was stored with a lower cost factor than the calibrated one
+        if (bcryptService.needsRehash(user.getPassword())) {
+        	user.setPassword(bcryptService.encodePassword(loginDTO.getPassword()));
+        	userRepository.save(user);
+        	logger.info("Method authenticateUser: Password of user with nickname '{}' rehashed with the current cost factor",
+        			user.getNickname());
+        }
+        
         // Generate and return a JWT token for the authenticated user
-        String token = jwtService.generateToken(UserMapper.toDTO(user));
+        long tokenEpoch = user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L;
+        String token = jwtService.generateToken(UserMapper.toDTO(user), tokenEpoch);
         
         logger.info("Method authenticateUser: Token for user with nickname {} created sucessfully.",
         		user.getNickname());
@@ -98,11 +131,15 @@ public class AuthenticationService {
 	
 	/**
 	 * Registers a new user and generates a JWT token for the newly created user.
+	 * 
+	 * The password is hashed before the transaction opens, so that a request waiting for the password
+	 * hashing executor does not hold a database connection. The user and its verification email are then
+	 * written in one short transaction.
 	 *
 	 * @param createDTO contains the user details for registration
 	 * @return a JWT token for the newly registered user
+	 * @throws ServiceUnavailableException if the password hashing executor is saturated
 	 */
-	@Transactional
 	public void registerUser(UserCreateDTO createDTO) {
 		logger.info("Entering method registerUser: Nickname '{}' and email '{}'", createDTO.getNickname(), createDTO.getEmail());
 		
@@ -110,22 +147,25 @@ public class AuthenticationService {
 		createDTO.setEmail(createDTO.getEmail().trim());
 		createDTO.setNickname(createDTO.getNickname().trim());
 		
-		// Create a new user and save it
-		UserDTO userSaved = userService.createUser(createDTO);
+		// Hash the password outside of any transaction
+		String passwordHash = bcryptService.encodePassword(createDTO.getPassword());
 		
-		logger.info("Method registerUser: User with nickname {} registered sucessfully.",
-				createDTO.getNickname());
-		
-		// Generate and return a JWT token for the newly registered user
-		String token = jwtService.generateVerificationToken(userSaved);
-		
-		logger.info("Method registerUser: Token for user with nickname {} created sucessfully. Token : {}",
-				createDTO.getNickname(), token);
-
-	    // Send email to verify
-	    CompletableFuture.runAsync(() -> {
-	    	mailService.sendVerificationEmail(userSaved.getEmail(), token);
-	    });
+		transactionTemplate.executeWithoutResult(status -> {
+			// Create a new user and save it
+			UserDTO userSaved = userService.createUser(createDTO, passwordHash);
+			
+			logger.info("Method registerUser: User with nickname {} registered sucessfully.",
+					createDTO.getNickname());
+			
+			// Generate and return a JWT token for the newly registered user
+			String token = jwtService.generateVerificationToken(userSaved);
+			
+			logger.info("Method registerUser: Token for user with nickname {} created sucessfully. Token : {}",
+					createDTO.getNickname(), token);
+			
+			// Queue the verification email in the same transaction, it is sent by the mail outbox dispatcher
+			mailService.sendVerificationEmail(userSaved.getEmail(), token);
+		});
 	}
 
 	/**
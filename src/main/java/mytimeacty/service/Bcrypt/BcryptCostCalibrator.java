@@ -0,0 +1,51 @@
+package mytimeacty.service.Bcrypt;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+public class BcryptCostCalibrator {
+	
+	public static final int MIN_STRENGTH = 10;
+	public static final int MAX_STRENGTH = 16;
+	
+	private static final int SAMPLES = 3;
+	
+	private static final Logger logger = LoggerFactory.getLogger(BcryptCostCalibrator.class);
+
+	/**
+	 * Finds the highest BCrypt cost factor whose hashing time stays under the target latency on this machine.
+	 * 
+	 * The hashing time is measured once at the minimum cost and extrapolated, since each additional
+	 * cost factor doubles the work. The result is never lower than the BCrypt default of 10.
+	 * 
+	 * @param targetLatencyMs the target duration of a single hash, in milliseconds.
+	 * @return the calibrated cost factor, between 10 and 16.
+	 */
+	public static int calibrate(long targetLatencyMs) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+		encoder.encode("calibration-warmup");
+		
+		long[] durations = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			encoder.encode("calibration-sample");
+			durations[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(durations);
+		double medianMs = Math.max(durations[SAMPLES / 2] / 1_000_000.0, 0.001);
+		
+		int strength = MIN_STRENGTH;
+		double estimatedMs = medianMs;
+		while (strength < MAX_STRENGTH && estimatedMs * 2 <= targetLatencyMs) {
+			strength++;
+			estimatedMs *= 2;
+		}
+		
+		logger.info("Method calibrate: BCrypt cost factor set to {} (measured {} ms at cost {}, target {} ms)",
+				strength, String.format("%.1f", medianMs), MIN_STRENGTH, targetLatencyMs);
+		return strength;
+	}
+}
@@ -1,33 +1,91 @@
 package mytimeacty.service.Bcrypt;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import mytimeacty.exception.ServiceUnavailableException;
+
 @Service
 public class BcryptService {
 
 	@Autowired
     private BCryptPasswordEncoder passwordEncoder;
 	
+	@Autowired
+	@Qualifier("passwordHashingExecutor")
+	private ExecutorService passwordHashingExecutor;
+	
+	private static final Logger logger = LoggerFactory.getLogger(BcryptService.class);
+	
 	/**
 	 * Encodes the raw password using the BCrypt hashing algorithm.
+	 * The hashing runs on the password hashing executor.
 	 * 
 	 * @param rawPassword the plain text password to be encoded.
 	 * @return the encoded password.
+	 * @throws ServiceUnavailableException if the password hashing executor is saturated.
 	 */
 	public String encodePassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return runOnHashingExecutor(() -> passwordEncoder.encode(rawPassword));
     }
 	
 	/**
 	 * Checks if the raw password matches the encoded password.
+	 * The verification runs on the password hashing executor.
 	 * 
 	 * @param rawPassword the plain text password provided by the user.
 	 * @param encodedPassword the encoded password stored in the database.
 	 * @return true if the passwords match, false otherwise.
+	 * @throws ServiceUnavailableException if the password hashing executor is saturated.
 	 */
 	public boolean checkPassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return runOnHashingExecutor(() -> passwordEncoder.matches(rawPassword, encodedPassword));
     }
+	
+	/**
+	 * Checks if the encoded password was hashed with a lower cost factor than the calibrated one.
+	 * 
+	 * @param encodedPassword the encoded password stored in the database.
+	 * @return true if the password should be hashed again, false otherwise.
+	 */
+	public boolean needsRehash(String encodedPassword) {
+		return passwordEncoder.upgradeEncoding(encodedPassword);
+	}
+	
+	/**
+	 * Runs a BCrypt task on the bounded password hashing executor and waits for its result.
+	 * 
+	 * @param task the hashing or verification task.
+	 * @return the result of the task.
+	 * @throws ServiceUnavailableException if the executor queue is full.
+	 */
+	private <T> T runOnHashingExecutor(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = passwordHashingExecutor.submit(task);
+		} catch (RejectedExecutionException e) {
+			logger.warn("Method runOnHashingExecutor: Password hashing queue is full, request rejected");
+			throw new ServiceUnavailableException("Server busy, please try again later");
+		}
+		
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Password hashing failed", e.getCause());
+		}
+	}
 }
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,10 +16,13 @@ import mytimeacty.model.followers.Follower;
 import mytimeacty.model.followers.FollowerId;
 import mytimeacty.model.followers.dto.FollowerDTO;
 import mytimeacty.model.followers.dto.FollowingDTO;
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+import mytimeacty.model.pagination.enums.TotalMode;
 import mytimeacty.model.users.User;
 import mytimeacty.model.users.dto.UserDTO;
 import mytimeacty.repository.FollowerRepository;
 import mytimeacty.repository.UserRepository;
+import mytimeacty.service.pagination.ApproximateTotalCache;
 import mytimeacty.utils.PaginationUtils;
 import mytimeacty.utils.SecurityUtils;
 
@@ -31,6 +35,9 @@ public class FollowerService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApproximateTotalCache approximateTotalCache;
+    
     private static final Logger logger = LoggerFactory.getLogger(FollowerService.class);
 
     /**
@@ -151,5 +158,59 @@ public class FollowerService {
         return pageFollowingDTO;
     }
     
+    /**
+     * Retrieves a slice of the followers of a specific user, without the count query of getFollowersByUserId.
+     *
+     * @param userId the ID of the user whose followers are being retrieved
+     * @param page the page number to retrieve
+     * @param size the number of entries per page
+     * @param total the total mode: NONE for no total, APPROX for a total cached for a short while
+     * @return a slice of FollowerDTO objects representing the followers of the user
+     * @throws UserNotFoundException if the user with the specified ID is not found
+     */
+    public SlicePageDTO<FollowerDTO> getFollowersSliceByUserId(int userId, int page, int size, TotalMode total) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getFollowersSliceByUserId: User '{}'", currentUserNickname);
+    	
+    	userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+    	
+        Pageable pageable = PaginationUtils.createPageable(page, size);
+        Slice<FollowerDTO> followers = followerRepository.findSliceByUserFollowedIdUser(userId, pageable)
+        		.map(FollowerMapper::convertToFollowerDTO);
+        Long approximateTotal = approximateTotalCache.resolve(total, ApproximateTotalCache.key("followers", "user", userId),
+        		() -> followerRepository.countByUserFollowedIdUser(userId));
+        
+        logger.info("Method getFollowersSliceByUserId: Followers of user with ID {} retrived sucessfully. Current User nickname: {}",
+        		userId, currentUserNickname);
+        
+        return PaginationUtils.toSlicePageDTO(followers, approximateTotal);
+    }
     
+    /**
+     * Retrieves a slice of the users that a specific user is following, without the count query of getFollowingsByUserId.
+     *
+     * @param userId the ID of the user whose followings are being retrieved
+     * @param page the page number to retrieve
+     * @param size the number of entries per page
+     * @param total the total mode: NONE for no total, APPROX for a total cached for a short while
+     * @return a slice of FollowingDTO objects representing the users being followed by the user
+     * @throws UserNotFoundException if the user with the specified ID is not found
+     */
+    public SlicePageDTO<FollowingDTO> getFollowingsSliceByUserId(int userId, int page, int size, TotalMode total) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getFollowingsSliceByUserId: User '{}'", currentUserNickname);
+    	
+    	userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
+    	
+        Pageable pageable = PaginationUtils.createPageable(page, size);
+        Slice<FollowingDTO> followings = followerRepository.findSliceByFollowerIdUser(userId, pageable)
+        		.map(FollowerMapper::convertToFollowingDTO);
+        Long approximateTotal = approximateTotalCache.resolve(total, ApproximateTotalCache.key("followings", "user", userId),
+        		() -> followerRepository.countByFollowerIdUser(userId));
+        
+        logger.info("Method getFollowingsSliceByUserId: Followings of user with ID {} retrived sucessfully. Current User nickname: {}",
+        		userId, currentUserNickname);
+        
+        return PaginationUtils.toSlicePageDTO(followings, approximateTotal);
+    }
 }
\ No newline at end of file
@@ -1,11 +1,17 @@
 package mytimeacty.service.JWT;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -16,6 +22,12 @@ import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import mytimeacty.exception.UnauthoriedException;
 import mytimeacty.model.users.dto.UserDTO;
 
@@ -28,26 +40,74 @@ public class JWTService {
 	@Autowired
     private JwtDecoder jwtDecoder;
 	
+	@Value("${jwt.stateless.enabled:false}")
+	private boolean statelessEnabled;
+	
+	/**
+	 * Lifetime of an authentication token.
+	 */
+	public static final Duration TOKEN_LIFETIME = Duration.ofHours(2);
+	
+	/**
+	 * Largest clock skew accepted on the expiration of a token by the validators of the decoder
+	 * (the default of JwtTimestampValidator).
+	 */
+	public static final Duration MAX_CLOCK_SKEW = Duration.ofSeconds(60);
+	
+	private final Cache<String, Jwt> verifiedTokens;
+	
 	private static final Logger logger = LoggerFactory.getLogger(JWTService.class);
 	
+	public JWTService(@Value("${cache.verified-token.max-size:50000}") long maxSize, MeterRegistry meterRegistry) {
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new Expiry<String, Jwt>() {
+					@Override
+					public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+						return timeToExpiration(jwt);
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+						return timeToExpiration(jwt);
+					}
+
+					@Override
+					public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.verifiedTokens, "verifiedTokens");
+	}
+	
 	/**
 	 * Generates a JWT (JSON Web Token) for the authenticated user.
 	 * 
 	 * This method creates a JWT containing user-specific claims, such as email, nickname, and user ID.
+	 * When the stateless mode is enabled, the role and the token epoch of the user are added as well,
+	 * so that requests can be authorized without loading the user.
 	 * The token is signed using the HS256 algorithm and has a 2-hour expiration time.
 	 * 
 	 * @param authentication the authenticated user's data (UserDTO) containing email, nickname, and user ID.
+	 * @param tokenEpoch the current token epoch of the user.
 	 * @return a signed JWT as a string, which can be used for authentication and authorization.
 	 */
-	public String generateToken(UserDTO authentication) {
+	public String generateToken(UserDTO authentication, long tokenEpoch) {
     	Instant now = Instant.now();
- 		JwtClaimsSet claims = JwtClaimsSet.builder()
+ 		JwtClaimsSet.Builder claimsBuilder = JwtClaimsSet.builder()
            		 .issuedAt(now)
-          		  .expiresAt(now.plus(2, ChronoUnit.HOURS))
+          		  .expiresAt(now.plus(TOKEN_LIFETIME))
           		  .subject(authentication.getEmail())
           		  .claim("nickname", authentication.getNickname())
-          		  .claim("id", authentication.getIdUser())
-          		  .build();
+          		  .claim("id", authentication.getIdUser());
+ 		if (statelessEnabled) {
+ 			claimsBuilder
+ 					.claim("role", authentication.getUserRole())
+ 					.claim("epoch", tokenEpoch);
+ 		}
+ 		JwtClaimsSet claims = claimsBuilder.build();
 		JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims);
 		return this.jwtEncoder.encode(jwtEncoderParameters).getTokenValue();
 	}
@@ -94,12 +154,42 @@ public class JWTService {
 	
 	/**
 	  * Decodes the JWT token to extract its claims.
+	  * Tokens that were already verified are served from the cache until their expiration,
+	  * so only the first request carrying a token pays for the signature check.
 	  * 
 	  * @param token the JWT token to be decoded.
 	  * @return a Jwt object representing the decoded token.
 	  */
 	 public Jwt getJwtFromToken(String token) {
-		return jwtDecoder.decode(token);  
+		return verifiedTokens.get(digest(token), key -> jwtDecoder.decode(token));
+	 }
+	 
+	 /**
+	  * Computes the SHA-256 digest of a raw token, used as the key of the verified-token cache.
+	  * 
+	  * @param token the raw JWT token.
+	  * @return the Base64 encoded digest of the token.
+	  */
+	 private static String digest(String token) {
+		 try {
+			 byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			 return Base64.getEncoder().encodeToString(hash);
+		 } catch (NoSuchAlgorithmException e) {
+			 throw new IllegalStateException("SHA-256 algorithm not available", e);
+		 }
+	 }
+	 
+	 /**
+	  * Computes how long a verified token can stay in the cache, which is until its "exp" claim.
+	  * 
+	  * @param jwt the verified token.
+	  * @return the remaining lifetime of the token in nanoseconds.
+	  */
+	 private static long timeToExpiration(Jwt jwt) {
+		 if (jwt.getExpiresAt() == null) {
+			 return 0;
+		 }
+		 return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
 	 }
 	
 }
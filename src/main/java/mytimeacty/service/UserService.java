@@ -2,11 +2,16 @@ package mytimeacty.service;
 
 import java.util.List;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -27,9 +32,11 @@ import mytimeacty.repository.FollowerRepository;
 import mytimeacty.repository.UserRepository;
 import mytimeacty.repository.quizz.QuizzLikeRepository;
 import mytimeacty.repository.quizz.QuizzRepository;
-import mytimeacty.service.Bcrypt.BcryptService;
+import mytimeacty.security.PrincipalCache;
+import mytimeacty.security.TokenRevocationRegistry;
 import mytimeacty.utils.PaginationUtils;
 import mytimeacty.utils.SecurityUtils;
+import mytimeacty.utils.TransactionUtils;
 import mytimeacty.mapper.UserMapper;
 import java.util.concurrent.CompletableFuture;
 
@@ -39,9 +46,6 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
-    @Autowired
-    private BcryptService bcryptService;
-    
     @Autowired
     private QuizzLikeRepository quizzLikeRepository;
     
@@ -51,39 +55,56 @@ public class UserService {
     @Autowired
     private FollowerRepository followerRepository;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     
+    private static final Pattern DUPLICATE_KEY_PATTERN = Pattern.compile("Key \\((.*?)\\)=\\(");
+    
 
     /**
      * Creates a new user with the provided details.
+     * 
+     * The user is inserted right away and a duplicate email or nickname is detected through the
+     * case-insensitive unique indexes, so that registering costs a single round-trip.
+     * The password is hashed by the caller before the transaction opens, so that no connection is held
+     * while waiting for the password hashing executor.
      *
      * @param userCreateDTO the DTO containing the details of the user to be created
+     * @param passwordHash the BCrypt hash of the password of the user
      * @return the created UserDTO
      * @throws UserAlreadyExistsException if the email or nickname is already in use
      */
     @Transactional
-    public UserDTO createUser(UserCreateDTO userCreateDTO) {
-        if (userRepository.findByEmailIgnoreCase(userCreateDTO.getEmail()).isPresent()) {
-        	logger.warn("Method createUser: Email '{}' already in use)", userCreateDTO.getEmail());
-            throw new UserAlreadyExistsException("Email already in use");
-        }
-        
-        if (userRepository.findByNicknameIgnoreCase(userCreateDTO.getNickname()).isPresent()) {
-        	logger.warn("Method createUser: Nickname '{}' already in use)", userCreateDTO.getNickname());
-            throw new UserAlreadyExistsException("Nickname already in use");
-        }
-        
-    	
+    public UserDTO createUser(UserCreateDTO userCreateDTO, String passwordHash) {
         User user = User.builder()
                         .email(userCreateDTO.getEmail())
                         .nickname(userCreateDTO.getNickname())
-                        .password(bcryptService.encodePassword(userCreateDTO.getPassword()))
+                        .password(passwordHash)
                         .userRole("user")
                         .userPreviousRole("user")
                         .isActivated(false)
                         .build();
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+        	savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+        	String duplicateField = resolveDuplicateField(e);
+        	if ("nickname".equals(duplicateField)) {
+        		logger.warn("Method createUser: Nickname '{}' already in use)", userCreateDTO.getNickname());
+                throw new UserAlreadyExistsException("Nickname already in use");
+        	}
+        	if ("email".equals(duplicateField)) {
+        		logger.warn("Method createUser: Email '{}' already in use)", userCreateDTO.getEmail());
+                throw new UserAlreadyExistsException("Email already in use");
+        	}
+        	throw e;
+        }
         
         UserDTO userDTO = UserMapper.toDTO(savedUser);
         
@@ -93,8 +114,37 @@ public class UserService {
         return userDTO;
     }
     
+    /**
+     * Resolves which field of the users table caused a unique constraint violation.
+     * The constraint name is checked first, then the key reported by the database.
+     *
+     * @param e the exception raised when inserting the user
+     * @return "email" or "nickname", or null if the violation concerns another constraint
+     */
+    private String resolveDuplicateField(DataIntegrityViolationException e) {
+    	String constraintName = e.getCause() instanceof ConstraintViolationException constraintViolation
+    			? constraintViolation.getConstraintName()
+    			: null;
+    	String source = constraintName != null ? constraintName : "";
+    	
+    	Matcher keyMatcher = DUPLICATE_KEY_PATTERN.matcher(String.valueOf(e.getMostSpecificCause().getMessage()));
+    	if (keyMatcher.find()) {
+    		source += " " + keyMatcher.group(1);
+    	}
+    	
+    	source = source.toLowerCase();
+    	if (source.contains("nickname")) {
+    		return "nickname";
+    	}
+    	if (source.contains("email")) {
+    		return "email";
+    	}
+    	return null;
+    }
+    
     /**
      * Get a paginated list of users filtered by nickname.
+     * Users are ordered by the similarity of their nickname to the searched one, then by nickname.
      *
      * @param nickname the nickname to filter users by
      * @param page the page number to retrieve (zero-based)
@@ -105,9 +155,10 @@ public class UserService {
     	UserDTO currentUserDTO = SecurityUtils.getCurrentUser();
     	logger.info("Entering method getFilteredUsers: User '{}'", currentUserDTO.getNickname());
     	
-        Pageable pageable = PaginationUtils.createPageableSortByAsc(page, size, "nickname");
-        List<User> users = userRepository.findByNicknameContainingIgnoreCaseAndUserRoleNotAndIsActivatedTrue(nickname.trim(), 
-        		UserRole.BANNED.getRole(), pageable);
+        Pageable pageable = PaginationUtils.createPageable(page, size);
+        String searchedNickname = nickname.trim().toLowerCase();
+        List<User> users = userRepository.searchActivatedByNickname(escapeLikePattern(searchedNickname), searchedNickname, 
+        		UserRole.BANNED.getRole(), pageable.getPageSize(), pageable.getOffset());
         
         User currentUser = this.getUserByIdData(currentUserDTO.getIdUser());
         
@@ -140,6 +191,16 @@ public class UserService {
         return pageUserDetailsDTO;
     }
     
+    /**
+     * Escapes the LIKE wildcards of a searched string, so that "_" and "%" are matched literally.
+     *
+     * @param value the searched string
+     * @return the string with backslash, "%" and "_" escaped by a backslash
+     */
+    private static String escapeLikePattern(String value) {
+    	return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     /**
      * Get a user by their ID.
      *
@@ -414,14 +475,22 @@ public class UserService {
     
     /**
      * Updates the user's role while saving the previous role.
+     * The cached principal of the user is evicted so the new role applies to the next request,
+     * and the token epoch is bumped so that tokens carrying the old role are revoked.
      *
      * @param user The user whose role is being updated.
      * @param newRole The new role to assign to the user.
      */
     private void updateUserRole(User user, String newRole) {
+        long previousEpoch = user.getTokenEpoch() != null ? user.getTokenEpoch() : 0L;
+        long tokenEpoch = Math.max(System.currentTimeMillis(), previousEpoch + 1);
+        
         user.setUserPreviousRole(user.getUserRole());
         user.setUserRole(UserRole.fromString(newRole).getRole());
+        user.setTokenEpoch(tokenEpoch);
         userRepository.save(user);
+        principalCache.invalidate(user.getIdUser());
+        TransactionUtils.runAfterCommit(() -> tokenRevocationRegistry.revoke(user.getIdUser(), tokenEpoch));
     }
     
     /**
@@ -443,6 +512,7 @@ public class UserService {
         user.setIsActivated(true);
 
         userRepository.save(user);
+        principalCache.invalidate(user.getIdUser());
         
         logger.info("Method activateUser: User '{}' marked as activated sucessfully", email);
     }
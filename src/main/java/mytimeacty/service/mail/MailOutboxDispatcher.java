@@ -0,0 +1,200 @@
+package mytimeacty.service.mail;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import mytimeacty.model.mail.MailOutbox;
+import mytimeacty.model.mail.enums.MailOutboxStatus;
+import mytimeacty.repository.MailOutboxRepository;
+
+/**
+ * Drains the mail outbox in batches.
+ *
+ * Each batch is claimed in a short transaction: its rows are locked with FOR UPDATE SKIP LOCKED,
+ * so several nodes can dispatch concurrently, and leased until in_flight_until. The batch is then sent
+ * over a single SMTP connection outside of any transaction, so no row lock or pooled connection is held
+ * during the network round-trips, and the outcome of each mail is recorded in a second short transaction.
+ * Mails of a dispatcher that died while sending are claimed again once their lease runs out.
+ *
+ * Failed mails are retried with an exponential backoff until the maximum number of attempts is reached,
+ * after which they are marked as FAILED.
+ * The sending runs on a dedicated single thread, never on the scheduler thread or the common pool.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+	@Autowired
+	private MailOutboxRepository mailOutboxRepository;
+
+	@Autowired
+	private MailService mailService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	@Qualifier("mailDispatchExecutor")
+	private ThreadPoolExecutor mailDispatchExecutor;
+
+	@Value("${spring.mail.username:}")
+	private String sender;
+
+	@Value("${mail.outbox.batch-size:50}")
+	private int batchSize;
+
+	@Value("${mail.outbox.max-attempts:8}")
+	private int maxAttempts;
+
+	@Value("${mail.outbox.backoff-base-seconds:30}")
+	private long backoffBaseSeconds;
+
+	@Value("${mail.outbox.backoff-max-minutes:60}")
+	private long backoffMaxMinutes;
+
+	@Value("${mail.outbox.lease-seconds:300}")
+	private long leaseSeconds;
+
+	@Value("${mail.outbox.retention-days:7}")
+	private long retentionDays;
+
+	private static final Logger logger = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+	/**
+	 * Hands a drain of the outbox to the dispatch thread. Nothing is queued if a drain is already pending.
+	 */
+	@Scheduled(fixedDelayString = "${mail.outbox.poll-ms:5000}")
+	public void schedule() {
+		mailDispatchExecutor.execute(this::drain);
+	}
+
+	/**
+	 * Sends batches until no due mail is left or a batch is not full.
+	 */
+	void drain() {
+		try {
+			List<MailOutbox> batch;
+			do {
+				batch = transactionTemplate.execute(status -> claimBatch());
+				if (batch == null || batch.isEmpty()) {
+					return;
+				}
+				List<SimpleMailMessage> messages = toMessages(batch);
+				Map<Object, Exception> failures = mailService.sendBatch(messages);
+				List<MailOutbox> sentBatch = batch;
+				transactionTemplate.executeWithoutResult(status -> recordOutcomes(sentBatch, messages, failures));
+			} while (batch.size() == batchSize);
+		} catch (Exception e) {
+			logger.error("Method drain: Failed to dispatch the mail outbox", e);
+		}
+	}
+
+	/**
+	 * Locks a batch of due mails and leases them to this dispatcher.
+	 *
+	 * @return the claimed mails, oldest first.
+	 */
+	private List<MailOutbox> claimBatch() {
+		Instant now = Instant.now();
+		List<MailOutbox> batch = mailOutboxRepository.lockDueBatch(now, batchSize);
+		Instant leaseEnd = now.plusSeconds(leaseSeconds);
+		batch.forEach(mail -> mail.setInFlightUntil(leaseEnd));
+		return batch;
+	}
+
+	private List<SimpleMailMessage> toMessages(List<MailOutbox> batch) {
+		List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+		for (MailOutbox mail : batch) {
+			SimpleMailMessage message = new SimpleMailMessage();
+			if (!sender.isBlank()) {
+				message.setFrom(sender);
+			}
+			message.setTo(mail.getRecipient());
+			message.setSubject(mail.getSubject());
+			message.setText(mail.getBody());
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	/**
+	 * Records the outcome of each mail of a sent batch and releases their lease.
+	 * The mails are loaded again in one query, since the claimed entities are detached by now.
+	 *
+	 * @param batch the claimed mails.
+	 * @param messages the messages sent for them, in the same order.
+	 * @param failures the messages that could not be sent, mapped to their failure.
+	 */
+	private void recordOutcomes(List<MailOutbox> batch, List<SimpleMailMessage> messages, Map<Object, Exception> failures) {
+		Instant now = Instant.now();
+		Map<Long, MailOutbox> managed = mailOutboxRepository.findAllById(batch.stream().map(MailOutbox::getIdMail).toList())
+				.stream()
+				.collect(Collectors.toMap(MailOutbox::getIdMail, Function.identity()));
+
+		for (int i = 0; i < batch.size(); i++) {
+			MailOutbox mail = managed.get(batch.get(i).getIdMail());
+			if (mail == null) {
+				continue;
+			}
+			Exception failure = failures.get(messages.get(i));
+			mail.setAttempts(mail.getAttempts() + 1);
+			mail.setInFlightUntil(null);
+
+			if (failure == null) {
+				mail.setStatus(MailOutboxStatus.SENT);
+				mail.setSentAt(now);
+				mail.setLastError(null);
+				logger.info("Method recordOutcomes: Mail with ID {} sent to {}", mail.getIdMail(), mail.getRecipient());
+			} else if (mail.getAttempts() >= maxAttempts) {
+				mail.setStatus(MailOutboxStatus.FAILED);
+				mail.setLastError(truncate(failure.getMessage()));
+				logger.error("Method recordOutcomes: Mail with ID {} to {} failed after {} attempts",
+						mail.getIdMail(), mail.getRecipient(), mail.getAttempts(), failure);
+			} else {
+				mail.setNextAttemptAt(now.plus(backoff(mail.getAttempts())));
+				mail.setLastError(truncate(failure.getMessage()));
+				logger.warn("Method recordOutcomes: Mail with ID {} to {} failed, retry at {}",
+						mail.getIdMail(), mail.getRecipient(), mail.getNextAttemptAt());
+			}
+		}
+	}
+
+	/**
+	 * Deletes the mails sent longer ago than the retention period.
+	 */
+	@Scheduled(cron = "${mail.outbox.cleanup-cron:0 0 4 * * *}")
+	public void deleteSentMails() {
+		int deleted = transactionTemplate.execute(status ->
+				mailOutboxRepository.deleteSentBefore(Instant.now().minus(Duration.ofDays(retentionDays))));
+		logger.info("Method deleteSentMails: {} sent mails deleted from the outbox", deleted);
+	}
+
+	private Duration backoff(int attempts) {
+		Duration max = Duration.ofMinutes(backoffMaxMinutes);
+		// Cap the shift so the multiplication cannot overflow
+		Duration delay = Duration.ofSeconds(backoffBaseSeconds).multipliedBy(1L << Math.min(attempts - 1, 20));
+		return delay.compareTo(max) > 0 ? max : delay;
+	}
+
+	private static String truncate(String message) {
+		if (message == null) {
+			return null;
+		}
+		return message.length() > 255 ? message.substring(0, 255) : message;
+	}
+}
@@ -1,13 +1,23 @@
 package mytimeacty.service.mail;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import mytimeacty.model.mail.MailOutbox;
+import mytimeacty.model.mail.enums.MailOutboxStatus;
+import mytimeacty.repository.MailOutboxRepository;
+
 
 @Service
 public class MailService {
@@ -15,6 +25,9 @@ public class MailService {
     @Autowired
     private JavaMailSender mailSender;
     
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+    
     @Value("${spring.profiles.active}")
     private String activeProfile;
     
@@ -23,23 +36,58 @@ public class MailService {
     
     private static final Logger logger = LoggerFactory.getLogger(MailService.class);
     
+    /**
+     * Writes the verification email of a user to the mail outbox.
+     * Called inside the registration transaction, so the email is stored if and only if the user is,
+     * and it is sent later by the MailOutboxDispatcher.
+     * 
+     * @param toEmail the email address of the user.
+     * @param token the verification token to put in the link.
+     */
     public void sendVerificationEmail(String toEmail, String token) {
     	if ("prod".equals(activeProfile)) {
-	        try {
-	            String verificationLink = corsOriginAllowedName +"/verify/" + token;
-	            
-	            SimpleMailMessage message = new SimpleMailMessage();
-	            message.setTo(toEmail);
-	            message.setSubject("Please Verify Your Email");
-	            message.setText("Thank you for registering. Please click the link below to verify your account:\n" + verificationLink);
-	            
-	            mailSender.send(message);
-	            logger.info("Method sendVerificationEmail: Verification email sent to {} with token {}", toEmail, token);
-	        } catch (Exception e) {
-	            logger.error("Method sendVerificationEmail: Failed to send verification email to {}", toEmail, e);
-	        }
+            String verificationLink = corsOriginAllowedName +"/verify/" + token;
+            
+            MailOutbox mail = MailOutbox.builder()
+            		.recipient(toEmail)
+            		.subject("Please Verify Your Email")
+            		.body("Thank you for registering. Please click the link below to verify your account:\n" + verificationLink)
+            		.status(MailOutboxStatus.PENDING)
+            		.attempts(0)
+            		.build();
+            
+            mailOutboxRepository.save(mail);
+            logger.info("Method sendVerificationEmail: Verification email to {} queued with token {}", toEmail, token);
     	} else {
     		logger.info("Mode non-production : email not sent");
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Sends a batch of mails over a single SMTP connection.
+     * Called outside of any transaction, so that no row lock or pooled connection is held during the SMTP exchange.
+     * 
+     * @param messages the messages to send.
+     * @return the messages that could not be sent, mapped to their failure. Empty if every message was sent.
+     */
+    public Map<Object, Exception> sendBatch(List<SimpleMailMessage> messages) {
+    	try {
+    		mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+    		return Map.of();
+    	} catch (MailSendException e) {
+    		// Failed messages are keyed by the SimpleMailMessage instances given to the sender
+    		if (!e.getFailedMessages().isEmpty()) {
+    			return e.getFailedMessages();
+    		}
+    		return failAll(messages, e);
+    	} catch (MailException e) {
+    		return failAll(messages, e);
+    	}
+    }
+    
+    private static Map<Object, Exception> failAll(List<SimpleMailMessage> messages, Exception e) {
+    	Map<Object, Exception> failures = new IdentityHashMap<>();
+    	messages.forEach(message -> failures.put(message, e));
+    	return failures;
+    }
+}
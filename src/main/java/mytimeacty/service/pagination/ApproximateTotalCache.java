@@ -0,0 +1,74 @@
+package mytimeacty.service.pagination;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mytimeacty.model.pagination.enums.TotalMode;
+
+/**
+ * Short-lived cache of the totals of the paginated listings, keyed by the normalized filter of the listing.
+ *
+ * A cached total may be behind the database by up to the TTL, which is what the "approx" mode
+ * of the listings trades for not running a count query on every page.
+ */
+@Component
+public class ApproximateTotalCache {
+
+	private final Cache<String, Long> cache;
+
+	public ApproximateTotalCache(@Value("${cache.approximate-total.max-size:10000}") long maxSize,
+								 @Value("${cache.approximate-total.ttl-seconds:60}") long ttlSeconds,
+								 MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "approximateTotals");
+	}
+
+	/**
+	 * Resolves the total to return with a slice of a listing.
+	 *
+	 * @param mode the total mode requested by the client.
+	 * @param key the normalized filter of the listing, built with key(...).
+	 * @param counter the count query of the listing, run on a cache miss.
+	 * @return the cached total in the APPROX mode, or null in the NONE mode.
+	 */
+	public Long resolve(TotalMode mode, String key, LongSupplier counter) {
+		if (mode != TotalMode.APPROX) {
+			return null;
+		}
+		return cache.get(key, k -> counter.getAsLong());
+	}
+
+	/**
+	 * Builds a cache key from the name of a listing and its filters.
+	 * Blank filters are dropped and strings are trimmed and lower-cased, so equivalent filters share an entry.
+	 *
+	 * @param listing the name of the listing.
+	 * @param filters the filters of the listing, as name and value pairs.
+	 * @return the normalized key.
+	 */
+	public static String key(String listing, Object... filters) {
+		StringBuilder key = new StringBuilder(listing);
+		for (int i = 0; i + 1 < filters.length; i += 2) {
+			Object value = filters[i + 1];
+			if (value instanceof String string) {
+				value = string.isBlank() ? null : string.trim().toLowerCase();
+			}
+			if (value != null) {
+				key.append('|').append(filters[i]).append('=').append(value);
+			}
+		}
+		return key.toString();
+	}
+}
@@ -1,15 +1,21 @@
 package mytimeacty.service.quizz;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import mytimeacty.mapper.QuizzCategoryMapper;
-import mytimeacty.model.quizzes.QuizzCategory;
 import mytimeacty.model.quizzes.dto.QuizzCategoryDTO;
 import mytimeacty.repository.quizz.QuizzCategoryRepository;
 import mytimeacty.utils.SecurityUtils;
@@ -20,14 +26,73 @@ public class QuizzCategoryService {
 	@Autowired
 	private QuizzCategoryRepository categoryRepository;
 	
+	/**
+	 * Immutable snapshot of the categories, replaced as a whole on reload.
+	 * The DTOs it holds are shared between requests and must not be modified.
+	 */
+	private record Snapshot(List<QuizzCategoryDTO> categories, Map<Integer, QuizzCategoryDTO> categoriesById, String etag) {}
+	
+	private volatile Snapshot snapshot;
+	
 	private static final Logger logger = LoggerFactory.getLogger(QuizzCategoryService.class);
 
+	/**
+	 * Retrieves all the categories from the in-memory snapshot.
+	 * 
+	 * @return an immutable list of QuizzCategoryDTO.
+	 */
 	public List<QuizzCategoryDTO> getAllCategories() {
 		String currentUserNickname= SecurityUtils.getCurrentUser().getNickname();
     	logger.info("Entering method getAllCategories: User '{}'", currentUserNickname);
     	
-		List<QuizzCategory> categories = categoryRepository.findAll();
-		return categories.stream().map(QuizzCategoryMapper::toDTO).collect(Collectors.toList());
+		return getSnapshot().categories();
 	}
 	
+	/**
+	 * Retrieves a category from the in-memory snapshot.
+	 * 
+	 * @param categoryId the ID of the category.
+	 * @return an Optional containing the QuizzCategoryDTO if the category exists, otherwise empty.
+	 */
+	public Optional<QuizzCategoryDTO> getCategoryById(Integer categoryId) {
+		return Optional.ofNullable(getSnapshot().categoriesById().get(categoryId));
+	}
+	
+	/**
+	 * Gets the entity tag of the current categories, which changes whenever they do.
+	 * 
+	 * @return the quoted entity tag.
+	 */
+	public String getETag() {
+		return getSnapshot().etag();
+	}
+	
+	/**
+	 * Loads the categories from the database and replaces the in-memory snapshot.
+	 * Called at startup and on demand when the categories have been changed in the database.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void reloadCategories() {
+		List<QuizzCategoryDTO> categories = categoryRepository.findAll().stream()
+				.map(QuizzCategoryMapper::toDTO)
+				.collect(Collectors.toUnmodifiableList());
+		Map<Integer, QuizzCategoryDTO> categoriesById = categories.stream()
+				.collect(Collectors.toUnmodifiableMap(QuizzCategoryDTO::getIdCategory, Function.identity()));
+		String content = categories.stream()
+				.map(category -> category.getIdCategory() + ":" + category.getLabel())
+				.collect(Collectors.joining(";"));
+		String etag = "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+		
+		snapshot = new Snapshot(categories, categoriesById, etag);
+		logger.info("Method reloadCategories: {} categories loaded", categories.size());
+	}
+	
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			reloadCategories();
+			current = snapshot;
+		}
+		return current;
+	}
 }
@@ -0,0 +1,180 @@
+package mytimeacty.service.quizz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import mytimeacty.utils.TransactionUtils;
+
+/**
+ * Accumulates the changes of the like, favourite and play counters of the quizzes in memory
+ * and writes them to the quizzes table in batches.
+ *
+ * A like or a play only adds a delta to the entry of its quizz, so a popular quizz does not turn into
+ * a hot row locked by every request. The deltas are flushed on a fixed delay and on shutdown with one
+ * batched UPDATE, in the order of the quizz IDs so that concurrent flushes of several nodes cannot deadlock.
+ * The updates are relative, so the nodes never overwrite the counts of each other.
+ *
+ * The deltas still in memory are lost if a node crashes, so the counters are recounted from the likes,
+ * favourites and plays once a night. A delta pending on another node while its quizz is recounted is counted
+ * twice until the next recount, which is why the recount runs at a quiet hour, right after a local flush.
+ */
+@Component
+public class QuizzCounters {
+
+	private static final String FLUSH_SQL = "UPDATE mytimeacty.quizzes SET like_count = like_count + ?, "
+			+ "favourite_count = favourite_count + ?, play_count = play_count + ? WHERE id_quizz = ?";
+
+	private static final String RECOUNT_SQL = "UPDATE mytimeacty.quizzes q SET like_count = c.likes, "
+			+ "favourite_count = c.favourites, play_count = c.plays "
+			+ "FROM (SELECT r.id_quizz, "
+			+ "(SELECT COUNT(*) FROM mytimeacty.quizz_likes l WHERE l.id_quizz = r.id_quizz) AS likes, "
+			+ "(SELECT COUNT(*) FROM mytimeacty.quizz_favourites f WHERE f.id_quizz = r.id_quizz) AS favourites, "
+			+ "(SELECT COUNT(*) FROM mytimeacty.quizz_play p WHERE p.id_quizz = r.id_quizz) AS plays "
+			+ "FROM mytimeacty.quizzes r WHERE r.id_quizz > ? AND r.id_quizz <= ?) c "
+			+ "WHERE q.id_quizz = c.id_quizz "
+			+ "AND (q.like_count, q.favourite_count, q.play_count) IS DISTINCT FROM (c.likes, c.favourites, c.plays)";
+
+	private static final int RECOUNT_BATCH_SIZE = 1000;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final Map<Integer, Deltas> pending = new ConcurrentHashMap<>();
+
+	private static final Logger logger = LoggerFactory.getLogger(QuizzCounters.class);
+
+	/**
+	 * Adds a delta to the like counter of a quizz once the current transaction commits.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param delta 1 for a like, -1 for an unlike.
+	 */
+	public void addLikes(int quizzId, long delta) {
+		TransactionUtils.runAfterCommit(() -> add(quizzId, delta, 0, 0));
+	}
+
+	/**
+	 * Adds a delta to the favourite counter of a quizz once the current transaction commits.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param delta 1 for a favourite, -1 for an unfavourite.
+	 */
+	public void addFavourites(int quizzId, long delta) {
+		TransactionUtils.runAfterCommit(() -> add(quizzId, 0, delta, 0));
+	}
+
+	/**
+	 * Adds a play to the play counter of a quizz once the current transaction commits.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 */
+	public void addPlay(int quizzId) {
+		TransactionUtils.runAfterCommit(() -> add(quizzId, 0, 0, 1));
+	}
+
+	/**
+	 * Writes the pending deltas to the database. If the update fails, the deltas are put back
+	 * and written with the next flush.
+	 */
+	@Scheduled(fixedDelayString = "${quizz.counters.flush-ms:5000}")
+	@PreDestroy
+	public synchronized void flush() {
+		List<Integer> quizzIds = new ArrayList<>(pending.keySet());
+		if (quizzIds.isEmpty()) {
+			return;
+		}
+		quizzIds.sort(null);
+
+		List<Object[]> batch = new ArrayList<>(quizzIds.size());
+		for (Integer quizzId : quizzIds) {
+			// Drain and remove the entry atomically, a concurrent delta creates a new entry for the next flush
+			Deltas[] drained = new Deltas[1];
+			pending.computeIfPresent(quizzId, (id, deltas) -> {
+				drained[0] = deltas;
+				return null;
+			});
+			if (drained[0] != null && !drained[0].isEmpty()) {
+				batch.add(new Object[] { drained[0].likes, drained[0].favourites, drained[0].plays, quizzId });
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+			logger.info("Method flush: Counters of {} quizzes updated", batch.size());
+		} catch (Exception e) {
+			batch.forEach(row -> add((Integer) row[3], (Long) row[0], (Long) row[1], (Long) row[2]));
+			logger.error("Method flush: Failed to update the counters of {} quizzes, they will be retried", batch.size(), e);
+		}
+	}
+
+	/**
+	 * Recounts the counters of every quizz from the likes, favourites and plays, in short transactions
+	 * of consecutive quizz IDs, and corrects the ones that drifted.
+	 */
+	@Scheduled(cron = "${quizz.counters.recount-cron:0 30 4 * * *}")
+	public void recount() {
+		flush();
+		Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id_quizz) FROM mytimeacty.quizzes", Integer.class);
+		if (maxId == null) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		int corrected = 0;
+		for (int fromId = 0; fromId < maxId; fromId += RECOUNT_BATCH_SIZE) {
+			int lowerId = fromId;
+			try {
+				Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(RECOUNT_SQL, lowerId, lowerId + RECOUNT_BATCH_SIZE));
+				corrected += updated == null ? 0 : updated;
+			} catch (Exception e) {
+				// The next recount covers these quizzes again
+				logger.error("Method recount: Failed to recount the quizzes after ID {}", lowerId, e);
+			}
+		}
+		if (corrected > 0) {
+			logger.warn("Method recount: Counters of {} quizzes corrected in {} ms", corrected, System.currentTimeMillis() - start);
+		} else {
+			logger.info("Method recount: All the counters are exact, checked in {} ms", System.currentTimeMillis() - start);
+		}
+	}
+
+	private void add(int quizzId, long likes, long favourites, long plays) {
+		// compute only locks the bin of the quizz, and lets the flush drain an entry without losing a delta
+		pending.compute(quizzId, (id, deltas) -> {
+			Deltas result = deltas == null ? new Deltas() : deltas;
+			result.likes += likes;
+			result.favourites += favourites;
+			result.plays += plays;
+			return result;
+		});
+	}
+
+	/**
+	 * Deltas of the counters of a quizz, only read and written inside the map operations on its entry.
+	 */
+	private static final class Deltas {
+		private long likes;
+		private long favourites;
+		private long plays;
+
+		private boolean isEmpty() {
+			return likes == 0 && favourites == 0 && plays == 0;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package mytimeacty.service.quizz;
+
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mytimeacty.model.quizzes.dto.AnswerDTO;
+import mytimeacty.model.quizzes.dto.QuestionDTO;
+import mytimeacty.model.quizzes.dto.QuizzWithDetailsDTO;
+import mytimeacty.utils.TransactionUtils;
+
+/**
+ * Cache of the fully built details of the quizzes, questions and answers included.
+ *
+ * Questions and answers are never edited once the quizz is created, so an entry stays valid until the quizz is hidden.
+ * The cache is bounded by the estimated size of its entries rather than their number, since a quizz
+ * can have a handful of questions or a hundred.
+ */
+@Component
+public class QuizzDetailsCache {
+
+	private static final int ENTRY_OVERHEAD = 256;
+	private static final int QUESTION_OVERHEAD = 96;
+	private static final int ANSWER_OVERHEAD = 80;
+
+	private final Cache<Integer, QuizzWithDetailsDTO> cache;
+
+	private static final Logger logger = LoggerFactory.getLogger(QuizzDetailsCache.class);
+
+	public QuizzDetailsCache(@Value("${cache.quizz-details.max-weight-bytes:33554432}") long maxWeightBytes,
+							 MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxWeightBytes)
+				.weigher((Integer quizzId, QuizzWithDetailsDTO details) -> estimateSize(details))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "quizzDetails");
+	}
+
+	/**
+	 * Retrieves the details of a quizz from the cache, building them on a miss.
+	 * The returned DTO is shared between requests and must not be modified.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param loader the function used to build the details when they are not cached.
+	 * @return the QuizzWithDetailsDTO of the quizz.
+	 */
+	public QuizzWithDetailsDTO get(int quizzId, IntFunction<QuizzWithDetailsDTO> loader) {
+		return cache.get(quizzId, id -> loader.apply(id));
+	}
+
+	/**
+	 * Evicts the details of a quizz right away and once more after the current transaction commits,
+	 * so that a request running concurrently cannot put back the state read before the commit.
+	 *
+	 * @param quizzId the ID of the quizz to evict.
+	 */
+	public void invalidate(int quizzId) {
+		cache.invalidate(quizzId);
+		TransactionUtils.runAfterCommit(() -> cache.invalidate(quizzId));
+		logger.info("Method invalidate: Details of quizz with ID {} evicted", quizzId);
+	}
+
+	/**
+	 * Estimates the heap size of the details of a quizz, counting two bytes per character of text.
+	 */
+	private static int estimateSize(QuizzWithDetailsDTO details) {
+		long size = ENTRY_OVERHEAD + 2L * length(details.getQuizz().getTitle()) + 2L * length(details.getQuizz().getCreatorNickname());
+		for (QuestionDTO question : details.getQuestions()) {
+			size += QUESTION_OVERHEAD + 2L * length(question.getQuestion());
+			for (AnswerDTO answer : question.getAnswers()) {
+				size += ANSWER_OVERHEAD + 2L * length(answer.getAnswer());
+			}
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	private static int length(String value) {
+		return value == null ? 0 : value.length();
+	}
+}
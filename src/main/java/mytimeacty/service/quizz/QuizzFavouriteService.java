@@ -29,6 +29,12 @@ public class QuizzFavouriteService {
     @Autowired
     private QuizzFavouriteRepository quizzFavouriteRepository;
     
+    @Autowired
+    private QuizzCounters quizzCounters;
+    
+    @Autowired
+    private TrendingQuizzes trendingQuizzes;
+    
     private static final Logger logger = LoggerFactory.getLogger(QuizzFavouriteService.class);
 
     /**
@@ -64,6 +70,8 @@ public class QuizzFavouriteService {
         if (!quizzFavouriteRepository.existsById(quizzFavouriteId)) {
             QuizzFavourite quizzFavourite = new QuizzFavourite(quizzFavouriteId, quizz, user);
             quizzFavouriteRepository.save(quizzFavourite);
+            quizzCounters.addFavourites(quizzId, 1);
+            trendingQuizzes.recordFavourites(quizzId, 1);
         }
     }
 
@@ -71,7 +79,7 @@ public class QuizzFavouriteService {
      * Removes a quizz from the user's list of favourites.
      * 
      * This method deletes the `QuizzFavourite` entity identified by the user ID and quizz ID,
-     * effectively removing the quizz from the user's favourites list.
+     * effectively removing the quizz from the user's favourites list, and counts the removal once the transaction commits.
      * 
      * @param userId the ID of the user who wants to unfavourite the quizz
      * @param quizzId the ID of the quizz to be unfavourited
@@ -81,7 +89,9 @@ public class QuizzFavouriteService {
     	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
     	logger.info("Entering method unfavouriteQuizz: User '{}'", currentUserNickname);
     	
-        QuizzFavouriteId quizzFavouriteId = new QuizzFavouriteId(quizzId, userId);
-        quizzFavouriteRepository.deleteById(quizzFavouriteId);
+        if (quizzFavouriteRepository.deleteByQuizzIdAndUserId(quizzId, userId) > 0) {
+        	quizzCounters.addFavourites(quizzId, -1);
+        	trendingQuizzes.recordFavourites(quizzId, -1);
+        }
     }
 }
\ No newline at end of file
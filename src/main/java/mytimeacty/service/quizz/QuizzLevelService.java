@@ -1,36 +1,98 @@
 package mytimeacty.service.quizz;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import mytimeacty.mapper.QuizzLevelMapper;
-import mytimeacty.model.quizzes.QuizzLevel;
 import mytimeacty.model.quizzes.dto.QuizzLevelDTO;
 import mytimeacty.repository.quizz.QuizzLevelRepository;
 import mytimeacty.utils.SecurityUtils;
 
 @Service
 public class QuizzLevelService {
-	
+
 	@Autowired
 	private QuizzLevelRepository levelRepository;
 	
-	private static final Logger logger = LoggerFactory.getLogger(QuizzCategoryService.class);
+	/**
+	 * Immutable snapshot of the levels, replaced as a whole on reload.
+	 * The DTOs it holds are shared between requests and must not be modified.
+	 */
+	private record Snapshot(List<QuizzLevelDTO> levels, Map<Integer, QuizzLevelDTO> levelsById, String etag) {}
+	
+	private volatile Snapshot snapshot;
+	
+	private static final Logger logger = LoggerFactory.getLogger(QuizzLevelService.class);
 
+	/**
+	 * Retrieves all the levels from the in-memory snapshot.
+	 * 
+	 * @return an immutable list of QuizzLevelDTO.
+	 */
 	public List<QuizzLevelDTO> getAllLevels() {
 		String currentUserNickname= SecurityUtils.getCurrentUser().getNickname();
     	logger.info("Entering method getAllLevels: User '{}'", currentUserNickname);
     	
-		List<QuizzLevel> levels = levelRepository.findAll();
-		return levels.stream().map(QuizzLevelMapper::toDTO).collect(Collectors.toList());
+		return getSnapshot().levels();
 	}
 	
+	/**
+	 * Retrieves a level from the in-memory snapshot.
+	 * 
+	 * @param levelId the ID of the level.
+	 * @return an Optional containing the QuizzLevelDTO if the level exists, otherwise empty.
+	 */
+	public Optional<QuizzLevelDTO> getLevelById(Integer levelId) {
+		return Optional.ofNullable(getSnapshot().levelsById().get(levelId));
+	}
 	
-
-
+	/**
+	 * Gets the entity tag of the current levels, which changes whenever they do.
+	 * 
+	 * @return the quoted entity tag.
+	 */
+	public String getETag() {
+		return getSnapshot().etag();
+	}
+	
+	/**
+	 * Loads the levels from the database and replaces the in-memory snapshot.
+	 * Called at startup and on demand when the levels have been changed in the database.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void reloadLevels() {
+		List<QuizzLevelDTO> levels = levelRepository.findAll().stream()
+				.map(QuizzLevelMapper::toDTO)
+				.collect(Collectors.toUnmodifiableList());
+		Map<Integer, QuizzLevelDTO> levelsById = levels.stream()
+				.collect(Collectors.toUnmodifiableMap(QuizzLevelDTO::getIdLevel, Function.identity()));
+		String content = levels.stream()
+				.map(level -> level.getIdLevel() + ":" + level.getLabel())
+				.collect(Collectors.joining(";"));
+		String etag = "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+		
+		snapshot = new Snapshot(levels, levelsById, etag);
+		logger.info("Method reloadLevels: {} levels loaded", levels.size());
+	}
+	
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			reloadLevels();
+			current = snapshot;
+		}
+		return current;
+	}
 }
@@ -29,13 +29,19 @@ public class QuizzLikeService {
     @Autowired
     private QuizzLikeRepository quizzLikeRepository;
     
+    @Autowired
+    private QuizzCounters quizzCounters;
+    
+    @Autowired
+    private TrendingQuizzes trendingQuizzes;
+    
     private static final Logger logger = LoggerFactory.getLogger(QuizzLikeService.class);
 
     /**
      * Adds a "like" to a quizz by the specified user.
      * 
      * This method verifies that both the quizz and user exist. If the quizz is not already liked by the user,
-     * it creates a new `QuizzLike` entity and saves it to the repository.
+     * it creates a new `QuizzLike` entity and saves it to the repository, and counts the like once the transaction commits.
      * 
      * @param userId the ID of the user who wants to like the quizz
      * @param quizzId the ID of the quizz to be liked
@@ -65,6 +71,8 @@ public class QuizzLikeService {
         if (!quizzLikeRepository.existsById(quizzLikeId)) {
             QuizzLike quizzLike = new QuizzLike(quizzLikeId, quizz, user);
             quizzLikeRepository.save(quizzLike);
+            quizzCounters.addLikes(quizzId, 1);
+            trendingQuizzes.recordLikes(quizzId, 1);
         }
     }
 
@@ -72,7 +80,7 @@ public class QuizzLikeService {
      * Removes a "like" from a quizz by the specified user.
      * 
      * This method deletes the `QuizzLike` entity identified by the user ID and quizz ID,
-     * effectively removing the like from the quizz.
+     * effectively removing the like from the quizz, and counts the removal once the transaction commits.
      * 
      * @param userId the ID of the user who wants to unlike the quizz
      * @param quizzId the ID of the quizz to be unliked
@@ -82,7 +90,9 @@ public class QuizzLikeService {
     	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
     	logger.info("Entering method unlikeQuizz: User '{}'", currentUserNickname);
     	
-        QuizzLikeId quizzLikeId = new QuizzLikeId(quizzId, userId);
-        quizzLikeRepository.deleteById(quizzLikeId);
+        if (quizzLikeRepository.deleteByQuizzIdAndUserId(quizzId, userId) > 0) {
+        	quizzCounters.addLikes(quizzId, -1);
+        	trendingQuizzes.recordLikes(quizzId, -1);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,503 @@
+package mytimeacty.service.quizz;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordTokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import mytimeacty.model.quizzes.Quizz;
+import mytimeacty.model.quizzes.dto.QuizzCardDTO;
+import mytimeacty.repository.quizz.QuizzRepository;
+import mytimeacty.specification.QuizzSpecifications;
+
+/**
+ * In-memory Lucene index of the visible quizzes, searched on their title and creator nickname.
+ *
+ * Nicknames are also indexed as every substring of the whole folded nickname, so that a nickname search
+ * keeps matching anywhere in the nickname like the SQL LIKE '%x%' it replaces ("mo" finds "Elmo").
+ *
+ * The index is built from the database at startup and kept up to date after each quizz creation or hiding
+ * made on this node. The quizzes created on other nodes are picked up every search.quizz.catch-up-ms
+ * (one minute by default), and the whole index is rebuilt every search.quizz.rebuild-ms to drop the quizzes
+ * hidden elsewhere. Hidden quizzes that are still indexed are filtered out when the page is hydrated from
+ * the database, so a stale entry never shows.
+ */
+@Component
+public class QuizzSearchIndex {
+
+	private static final String ID = "id";
+	private static final String TITLE = "title";
+	private static final String NICKNAME = "nickname";
+	private static final String NICKNAME_INFIX = "nicknameInfix";
+	private static final String CATEGORY = "category";
+	private static final String LEVEL = "level";
+	private static final String CREATED_AT = "createdAt";
+
+	private static final int LOAD_BATCH_SIZE = 1000;
+
+	/**
+	 * Longest nickname, every substring of a nickname up to this length is indexed.
+	 */
+	private static final int MAX_NICKNAME_LENGTH = 20;
+
+	/**
+	 * Overlap of two catch-ups, covering the quizzes committed on another node a while after their creation date
+	 * and small clock differences between nodes.
+	 */
+	private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+	@Autowired
+	private QuizzRepository quizzRepository;
+
+	@Value("${search.quizz.enabled:true}")
+	private boolean enabled;
+
+	@Value("${search.quizz.max-results:1000}")
+	private int maxResults;
+
+	private final Analyzer analyzer = new PerFieldAnalyzerWrapper(new FoldingAnalyzer(), Map.of(NICKNAME_INFIX, new InfixAnalyzer()));
+
+	private final Analyzer keywordAnalyzer = new KeywordFoldingAnalyzer();
+
+	private volatile Index current;
+
+	private volatile Index building;
+
+	private volatile Instant caughtUpTo;
+
+	private static final Logger logger = LoggerFactory.getLogger(QuizzSearchIndex.class);
+
+	/**
+	 * Result of a search: the IDs of the page, best match first, and the number of matching quizzes.
+	 *
+	 * @param ids the IDs of the quizzes of the requested page
+	 * @param total the number of quizzes matching the search
+	 */
+	public record SearchResult(List<Integer> ids, long total) {}
+
+	/**
+	 * Tells whether searches can be served by the index, which is the case once the first build is done.
+	 *
+	 * @return true if the index is enabled and built, otherwise false.
+	 */
+	public boolean isReady() {
+		return enabled && current != null;
+	}
+
+	/**
+	 * Adds or replaces a quizz in the index.
+	 *
+	 * @param card the card of the quizz to index.
+	 */
+	public void index(QuizzCardDTO card) {
+		apply(index -> index.writer.updateDocument(idTerm(card.idQuizz()), toDocument(card)));
+	}
+
+	/**
+	 * Removes a quizz from the index.
+	 *
+	 * @param quizzId the ID of the quizz to remove.
+	 */
+	public void remove(int quizzId) {
+		apply(index -> index.writer.deleteDocuments(idTerm(quizzId)));
+	}
+
+	/**
+	 * Searches the quizzes whose title matches the title text or whose creator nickname matches the nickname text.
+	 * Matching is done on folded, lower-cased tokens: exact tokens rank first, then prefixes, then tokens
+	 * within one or two edits. A nickname containing the nickname text anywhere also matches, ranked last.
+	 * Ties are broken by creation date, newest first.
+	 *
+	 * @param title the title text (optional).
+	 * @param nickname the nickname text (optional).
+	 * @param categoryId the category filter (optional, ignored if negative).
+	 * @param levelId the level filter (optional, ignored if negative).
+	 * @param page the page number.
+	 * @param size the size of the page.
+	 * @return the IDs of the page and the number of matches.
+	 */
+	public SearchResult search(String title, String nickname, Integer categoryId, Integer levelId, int page, int size) {
+		return searchFrom(title, nickname, categoryId, levelId, (long) page * size, size);
+	}
+
+	/**
+	 * Searches the quizzes like search, starting at the given rank instead of a page. Used by the cursor listings,
+	 * whose continuation token holds the rank of the next match.
+	 *
+	 * @param title the title text (optional).
+	 * @param nickname the nickname text (optional).
+	 * @param categoryId the category filter (optional, ignored if negative).
+	 * @param levelId the level filter (optional, ignored if negative).
+	 * @param offset the rank of the first match to return, from 0.
+	 * @param size the number of matches to return.
+	 * @return the IDs of the matches and the number of matches.
+	 */
+	public SearchResult searchFrom(String title, String nickname, Integer categoryId, Integer levelId, long offset, int size) {
+		Index index = current;
+		if (index == null) {
+			throw new IllegalStateException("Quizz search index not built yet");
+		}
+
+		BooleanQuery.Builder text = new BooleanQuery.Builder();
+		Query titleQuery = matchAllTokens(TITLE, title);
+		Query nicknameQuery = matchNickname(nickname);
+		if (titleQuery != null) {
+			text.add(titleQuery, BooleanClause.Occur.SHOULD);
+		}
+		if (nicknameQuery != null) {
+			text.add(nicknameQuery, BooleanClause.Occur.SHOULD);
+		}
+
+		BooleanQuery.Builder query = new BooleanQuery.Builder()
+				.add(text.setMinimumNumberShouldMatch(1).build(), BooleanClause.Occur.MUST);
+		if (categoryId != null && categoryId >= 0) {
+			query.add(new TermQuery(new Term(CATEGORY, categoryId.toString())), BooleanClause.Occur.FILTER);
+		}
+		if (levelId != null && levelId >= 0) {
+			query.add(new TermQuery(new Term(LEVEL, levelId.toString())), BooleanClause.Occur.FILTER);
+		}
+		Query finalQuery = query.build();
+
+		int limit = (int) Math.min(offset + size, maxResults);
+		try {
+			IndexSearcher searcher = index.searcherManager.acquire();
+			try {
+				long total = Math.min(searcher.count(finalQuery), maxResults);
+				if (offset >= limit) {
+					return new SearchResult(List.of(), total);
+				}
+
+				Sort sort = new Sort(SortField.FIELD_SCORE, new SortField(CREATED_AT, SortField.Type.LONG, true));
+				TopDocs topDocs = searcher.search(finalQuery, limit, sort);
+				List<Integer> ids = new ArrayList<>(size);
+				ScoreDoc[] hits = topDocs.scoreDocs;
+				for (int i = (int) offset; i < hits.length; i++) {
+					ids.add(Integer.valueOf(searcher.storedFields().document(hits[i].doc).get(ID)));
+				}
+				return new SearchResult(ids, total);
+			} finally {
+				index.searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Builds the index from the database once the application has started.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void buildOnStartup() {
+		rebuild();
+	}
+
+	/**
+	 * Rebuilds the index from the database into a new directory, then swaps it in.
+	 * Updates made while rebuilding are applied to both indexes, so none is lost by the swap.
+	 */
+	@Scheduled(initialDelayString = "${search.quizz.rebuild-ms:1800000}", fixedDelayString = "${search.quizz.rebuild-ms:1800000}")
+	public synchronized void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		Instant loadedFrom = Instant.ofEpochMilli(start);
+		Index fresh = Index.create(analyzer);
+		building = fresh;
+		try {
+			int count = load(QuizzSpecifications.isVisible(), card -> fresh.writer.updateDocument(idTerm(card.idQuizz()), toDocument(card)));
+			fresh.searcherManager.maybeRefreshBlocking();
+
+			Index previous = current;
+			current = fresh;
+			building = null;
+			caughtUpTo = loadedFrom;
+			if (previous != null) {
+				previous.close();
+			}
+			logger.info("Method rebuild: Quizz search index rebuilt with {} quizzes in {} ms", count, System.currentTimeMillis() - start);
+		} catch (Exception e) {
+			building = null;
+			fresh.close();
+			logger.error("Method rebuild: Failed to rebuild the quizz search index", e);
+		}
+	}
+
+	/**
+	 * Indexes the visible quizzes created since the last catch-up, including the ones created on other nodes,
+	 * so that they become searchable within the catch-up delay instead of at the next rebuild.
+	 */
+	@Scheduled(initialDelayString = "${search.quizz.catch-up-ms:60000}", fixedDelayString = "${search.quizz.catch-up-ms:60000}")
+	public synchronized void catchUp() {
+		Instant since = caughtUpTo;
+		if (!isReady() || since == null) {
+			return;
+		}
+		Instant now = Instant.now();
+		try {
+			int count = load(QuizzSpecifications.isVisible().and(QuizzSpecifications.isCreatedAfter(since.minus(CATCH_UP_OVERLAP))), this::index);
+			caughtUpTo = now;
+			logger.debug("Method catchUp: {} recent quizzes indexed", count);
+		} catch (Exception e) {
+			// The next catch-up covers the same period again
+			logger.error("Method catchUp: Failed to index the recent quizzes", e);
+		}
+	}
+
+	/**
+	 * Loads the cards of the quizzes matching the specification in batches following their IDs.
+	 *
+	 * @param spec the specification of the quizzes to load.
+	 * @param consumer the consumer of each card.
+	 * @return the number of cards loaded.
+	 * @throws IOException if the consumer fails to index a card.
+	 */
+	private int load(Specification<Quizz> spec, CardConsumer consumer) throws IOException {
+		int count = 0;
+		Integer lastId = 0;
+		List<QuizzCardDTO> batch;
+		do {
+			batch = quizzRepository.findCards(spec.and(QuizzSpecifications.hasIdGreaterThan(lastId)),
+					org.springframework.data.domain.Sort.by(Direction.ASC, "idQuizz"), LOAD_BATCH_SIZE);
+			for (QuizzCardDTO card : batch) {
+				consumer.accept(card);
+			}
+			count += batch.size();
+			if (!batch.isEmpty()) {
+				lastId = batch.get(batch.size() - 1).idQuizz();
+			}
+		} while (batch.size() == LOAD_BATCH_SIZE);
+		return count;
+	}
+
+	@PreDestroy
+	void close() {
+		Index index = current;
+		if (index != null) {
+			index.close();
+		}
+	}
+
+	private void apply(IndexUpdate update) {
+		if (!enabled) {
+			return;
+		}
+		for (Index index : new Index[] { current, building }) {
+			if (index == null) {
+				continue;
+			}
+			try {
+				update.apply(index);
+				index.searcherManager.maybeRefresh();
+			} catch (IOException | RuntimeException e) {
+				// The periodic rebuild repairs the entry
+				logger.error("Method apply: Failed to update the quizz search index", e);
+			}
+		}
+	}
+
+	private Query matchAllTokens(String field, String text) {
+		if (text == null || text.isBlank()) {
+			return null;
+		}
+		List<String> tokens = analyze(field, text);
+		if (tokens.isEmpty()) {
+			return null;
+		}
+
+		BooleanQuery.Builder allTokens = new BooleanQuery.Builder();
+		for (String token : tokens) {
+			BooleanQuery.Builder oneToken = new BooleanQuery.Builder()
+					.add(new BoostQuery(new TermQuery(new Term(field, token)), 3f), BooleanClause.Occur.SHOULD)
+					.add(new BoostQuery(new PrefixQuery(new Term(field, token)), 2f), BooleanClause.Occur.SHOULD);
+			if (token.length() >= 3) {
+				int maxEdits = token.length() >= 6 ? 2 : 1;
+				oneToken.add(new FuzzyQuery(new Term(field, token), maxEdits, 1), BooleanClause.Occur.SHOULD);
+			}
+			allTokens.add(oneToken.build(), BooleanClause.Occur.MUST);
+		}
+		return allTokens.build();
+	}
+
+	private Query matchNickname(String nickname) {
+		Query tokens = matchAllTokens(NICKNAME, nickname);
+		if (tokens == null) {
+			return null;
+		}
+		List<String> folded = analyze(keywordAnalyzer, NICKNAME, nickname.trim());
+		if (folded.isEmpty() || folded.get(0).length() > MAX_NICKNAME_LENGTH) {
+			return tokens;
+		}
+		return new BooleanQuery.Builder()
+				.add(tokens, BooleanClause.Occur.SHOULD)
+				.add(new TermQuery(new Term(NICKNAME_INFIX, folded.get(0))), BooleanClause.Occur.SHOULD)
+				.build();
+	}
+
+	private List<String> analyze(String field, String text) {
+		return analyze(analyzer, field, text);
+	}
+
+	private static List<String> analyze(Analyzer analyzer, String field, String text) {
+		List<String> tokens = new ArrayList<>();
+		try (TokenStream stream = analyzer.tokenStream(field, text)) {
+			CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+			stream.reset();
+			while (stream.incrementToken()) {
+				tokens.add(term.toString());
+			}
+			stream.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return tokens;
+	}
+
+	private static Term idTerm(int quizzId) {
+		return new Term(ID, Integer.toString(quizzId));
+	}
+
+	private static Document toDocument(QuizzCardDTO card) {
+		Document document = new Document();
+		document.add(new StringField(ID, card.idQuizz().toString(), Field.Store.YES));
+		document.add(new TextField(TITLE, card.title(), Field.Store.NO));
+		document.add(new TextField(NICKNAME, card.creatorNickname(), Field.Store.NO));
+		document.add(new TextField(NICKNAME_INFIX, card.creatorNickname(), Field.Store.NO));
+		document.add(new StringField(CATEGORY, card.categoryId().toString(), Field.Store.NO));
+		document.add(new StringField(LEVEL, card.levelId().toString(), Field.Store.NO));
+		document.add(new NumericDocValuesField(CREATED_AT, card.createdAt().toEpochMilli()));
+		return document;
+	}
+
+	@FunctionalInterface
+	private interface IndexUpdate {
+		void apply(Index index) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface CardConsumer {
+		void accept(QuizzCardDTO card) throws IOException;
+	}
+
+	/**
+	 * An in-memory directory with its writer and the manager of its near-real-time searchers.
+	 */
+	private static final class Index {
+
+		private final IndexWriter writer;
+		private final SearcherManager searcherManager;
+
+		private Index(IndexWriter writer, SearcherManager searcherManager) {
+			this.writer = writer;
+			this.searcherManager = searcherManager;
+		}
+
+		static Index create(Analyzer analyzer) {
+			try {
+				IndexWriter writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+				return new Index(writer, new SearcherManager(writer, null));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void close() {
+			try {
+				searcherManager.close();
+				writer.close();
+			} catch (IOException e) {
+				logger.warn("Method close: Failed to close a quizz search index", e);
+			}
+		}
+	}
+
+	/**
+	 * Splits text into words, lower-cases them and folds accents, so that "Géographie" matches "geographie".
+	 */
+	private static final class FoldingAnalyzer extends Analyzer {
+
+		@Override
+		protected TokenStreamComponents createComponents(String fieldName) {
+			Tokenizer tokenizer = new StandardTokenizer();
+			TokenStream stream = new LowerCaseFilter(tokenizer);
+			stream = new ASCIIFoldingFilter(stream);
+			return new TokenStreamComponents(tokenizer, stream);
+		}
+	}
+
+	/**
+	 * Folds the whole text into a single lower-cased token, used to look a nickname text up in the infix field.
+	 */
+	private static final class KeywordFoldingAnalyzer extends Analyzer {
+
+		@Override
+		protected TokenStreamComponents createComponents(String fieldName) {
+			Tokenizer tokenizer = new KeywordTokenizer();
+			TokenStream stream = new LowerCaseFilter(tokenizer);
+			stream = new ASCIIFoldingFilter(stream);
+			return new TokenStreamComponents(tokenizer, stream);
+		}
+	}
+
+	/**
+	 * Indexes every substring of the whole folded nickname, so that "elmo" is found by "l", "mo" or "elm".
+	 */
+	private static final class InfixAnalyzer extends Analyzer {
+
+		@Override
+		protected TokenStreamComponents createComponents(String fieldName) {
+			Tokenizer tokenizer = new KeywordTokenizer();
+			TokenStream stream = new LowerCaseFilter(tokenizer);
+			stream = new ASCIIFoldingFilter(stream);
+			stream = new NGramTokenFilter(stream, 1, MAX_NICKNAME_LENGTH, false);
+			return new TokenStreamComponents(tokenizer, stream);
+		}
+	}
+}
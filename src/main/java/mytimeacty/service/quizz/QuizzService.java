@@ -1,31 +1,47 @@
 package mytimeacty.service.quizz;
 
-import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import mytimeacty.exception.IllegalArgumentException;
 import mytimeacty.exception.NotFoundException;
+import mytimeacty.exception.ServiceUnavailableException;
 import mytimeacty.exception.UserNotFoundException;
 import mytimeacty.mapper.QuizzCategoryMapper;
 import mytimeacty.mapper.QuizzLevelMapper;
 import mytimeacty.mapper.QuizzMapper;
+import mytimeacty.model.pagination.dto.CursorPageDTO;
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+import mytimeacty.model.pagination.enums.TotalMode;
 import mytimeacty.model.quizzes.Quizz;
 import mytimeacty.model.quizzes.QuizzAnswer;
 import mytimeacty.model.quizzes.QuizzCategory;
 import mytimeacty.model.quizzes.QuizzLevel;
 import mytimeacty.model.quizzes.QuizzQuestion;
 import mytimeacty.model.quizzes.dto.AnswerDTO;
+import mytimeacty.model.quizzes.dto.QuizzCardDTO;
+import mytimeacty.model.quizzes.dto.QuizzCategoryDTO;
 import mytimeacty.model.quizzes.dto.QuestionDTO;
 import mytimeacty.model.quizzes.dto.QuizzDTO;
+import mytimeacty.model.quizzes.dto.QuizzLevelDTO;
 import mytimeacty.model.quizzes.dto.QuizzWithDetailsDTO;
 import mytimeacty.model.quizzes.dto.QuizzWithLikeAndFavouriteDTO;
 import mytimeacty.model.quizzes.dto.creation.AnswerCreateDTO;
@@ -34,16 +50,16 @@ import mytimeacty.model.quizzes.dto.creation.QuizzCreateDTO;
 import mytimeacty.model.users.User;
 import mytimeacty.model.users.dto.UserDTO;
 import mytimeacty.repository.UserRepository;
-import mytimeacty.repository.quizz.QuizzAnswerRepository;
 import mytimeacty.repository.quizz.QuizzCategoryRepository;
 import mytimeacty.repository.quizz.QuizzFavouriteRepository;
 import mytimeacty.repository.quizz.QuizzLevelRepository;
 import mytimeacty.repository.quizz.QuizzLikeRepository;
-import mytimeacty.repository.quizz.QuizzQuestionRepository;
 import mytimeacty.repository.quizz.QuizzRepository;
+import mytimeacty.service.pagination.ApproximateTotalCache;
 import mytimeacty.specification.QuizzSpecifications;
 import mytimeacty.utils.PaginationUtils;
 import mytimeacty.utils.SecurityUtils;
+import mytimeacty.utils.TransactionUtils;
 
 @Service
 public class QuizzService {
@@ -51,12 +67,6 @@ public class QuizzService {
     @Autowired
     private QuizzRepository quizzRepository;
     
-    @Autowired
-    private QuizzQuestionRepository quizzQuestionRepository;
-
-    @Autowired
-    private QuizzAnswerRepository quizzAnswerRepository;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -72,11 +82,30 @@ public class QuizzService {
     @Autowired
     private QuizzCategoryRepository quizzCategoryRepository;
     
+    @Autowired
+    private ApproximateTotalCache approximateTotalCache;
+    
+    @Autowired
+    private QuizzSearchIndex quizzSearchIndex;
+    
+    @Autowired
+    private QuizzLevelService quizzLevelService;
+    
+    @Autowired
+    private QuizzCategoryService quizzCategoryService;
+    
+    @Autowired
+    private QuizzDetailsCache quizzDetailsCache;
+    
+    @Autowired
+    private TrendingQuizzes trendingQuizzes;
+    
     private static final Logger logger = LoggerFactory.getLogger(QuizzService.class);
     
     
     /**
      * Retrieves the details of a quizz, including its questions and answers, and returns them as a DTO.
+     * The details are served from the QuizzDetailsCache, and built from the database on a miss.
      * 
      * @param quizzId the ID of the quizz to retrieve
      * @return a QuizzWithDetailsDTO containing the quizz details, questions, and answers
@@ -86,7 +115,20 @@ public class QuizzService {
     	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
     	logger.info("Entering method markQuizzAsHidden: User '{}'", currentUserNickname);
     	
-    	Quizz quizz = quizzRepository.findById(quizzId)
+    	return quizzDetailsCache.get(quizzId, id -> loadQuizzWithDetails(id, currentUserNickname));
+    }
+    
+    /**
+     * Loads the details of a quizz, including its questions and answers, from the database.
+     * 
+     * @param quizzId the ID of the quizz to load
+     * @param currentUserNickname the nickname of the current user, for logging
+     * @return a QuizzWithDetailsDTO containing the quizz details, questions, and answers
+     * @throws NotFoundException if the quizz with the given ID is not found
+     */
+    private QuizzWithDetailsDTO loadQuizzWithDetails(Integer quizzId, String currentUserNickname) {
+    	// Questions and answers come in the same query, already ordered by their number
+    	Quizz quizz = quizzRepository.findWithQuestionsAndAnswersById(quizzId)
                 .orElseThrow(() -> {
                 	logger.warn("Method getQuizzWithDetails: Quizz with ID {} not found. Current User nickname: {}",
                 			quizzId, currentUserNickname);
@@ -106,10 +148,8 @@ public class QuizzService {
 
         // Convert the questions and their answers to DTOs
         List<QuestionDTO> questionDTOs = quizz.getQuizzQuestions().stream()
-        		.sorted(Comparator.comparingInt(QuizzQuestion::getNumQuestion))
                 .map(q -> {
                     List<AnswerDTO> answerDTOs = q.getQuizzAnswers().stream()
-                    		.sorted(Comparator.comparingInt(QuizzAnswer::getNumAnswer))
                             .map(a -> AnswerDTO.builder()
                                     .idAnswer(a.getIdAnswer())
                                     .answer(a.getAnswer())
@@ -152,6 +192,9 @@ public class QuizzService {
                 });
         quizz.setIsVisible(false);
         quizzRepository.save(quizz);
+        TransactionUtils.runAfterCommit(() -> quizzSearchIndex.remove(quizzId));
+        quizzDetailsCache.invalidate(quizzId);
+        trendingQuizzes.remove(quizzId);
         
         logger.info("Method markQuizzAsHidden: Quizz with ID {} marked as hidden sucessfully. Current User nickname: {}",
         		quizz.getIdQuizz(), currentUserNickname);
@@ -179,18 +222,21 @@ public class QuizzService {
 		        			SecurityUtils.getCurrentUser().getIdUser(), currentUserNickname);
 		        	return new UserNotFoundException("User not found");
 		        });
-        QuizzLevel level = quizzLevelRepository.findById(quizzCreationDTO.getLevelId())
+        // Level and category are validated against the in-memory reference data
+        QuizzLevelDTO levelDTO = quizzLevelService.getLevelById(quizzCreationDTO.getLevelId())
 		        .orElseThrow(() -> {
 		        	logger.warn("Method createQuizz: Level with ID {} not found. Current User nickname: {}",
 		        			quizzCreationDTO.getLevelId(), currentUserNickname);
 		        	return new NotFoundException("Level not found");
 		        });
-        QuizzCategory category = quizzCategoryRepository.findById(quizzCreationDTO.getCategoryId())
+        QuizzCategoryDTO categoryDTO = quizzCategoryService.getCategoryById(quizzCreationDTO.getCategoryId())
 		        .orElseThrow(() -> {
 		        	logger.warn("Method createQuizz: Category with ID {} not found. Current User nickname: {}",
 		        			quizzCreationDTO.getCategoryId(), currentUserNickname);
 		        	return new NotFoundException("Category not found");
 		        });
+        QuizzLevel level = quizzLevelRepository.getReferenceById(levelDTO.getIdLevel());
+        QuizzCategory category = quizzCategoryRepository.getReferenceById(categoryDTO.getIdCategory());
 
         // Build the quizz
         Quizz quizz = Quizz.builder()
@@ -200,22 +246,18 @@ public class QuizzService {
                 .category(category)
                 .isVisible(true)
                 .img(quizzCreationDTO.getImg())
+                .quizzQuestions(new LinkedHashSet<>())
                 .build();
 
-        quizz = quizzRepository.save(quizz);
-        logger.info("Method createQuizz: Quizz with ID {} created sucessfully. Current User nickname: {}",
-        		quizz.getIdQuizz(), currentUserNickname);
-
         // Build questions and answers
         for (QuestionCreateDTO questionDTO : quizzCreationDTO.getQuestions()) {
             QuizzQuestion question = QuizzQuestion.builder()
                     .question(questionDTO.getQuestion())
                     .numQuestion(questionDTO.getNumQuestion())
                     .quizz(quizz)
+                    .quizzAnswers(new LinkedHashSet<>())
                     .build();
 
-            question = quizzQuestionRepository.save(question);
-
             for (AnswerCreateDTO answerDTO : questionDTO.getAnswers()) {
                 QuizzAnswer answer = QuizzAnswer.builder()
                         .answer(answerDTO.getAnswer())
@@ -224,11 +266,21 @@ public class QuizzService {
                         .question(question)
                         .build();
 
-                quizzAnswerRepository.save(answer);
+                question.getQuizzAnswers().add(answer);
             }
-            
+            quizz.getQuizzQuestions().add(question);
         }
-        QuizzDTO quizzDTO = QuizzMapper.toDTO(quizz);
+        
+        // The questions and answers are persisted by cascade, their IDs come from pooled sequences,
+        // so the whole aggregate is inserted with JDBC batches when the transaction is flushed
+        quizz = quizzRepository.save(quizz);
+        logger.info("Method createQuizz: Quizz with ID {} created sucessfully. Current User nickname: {}",
+        		quizz.getIdQuizz(), currentUserNickname);
+        // Level and category are references, their labels come from the reference data
+        QuizzCardDTO card = new QuizzCardDTO(quizz.getIdQuizz(), quizz.getTitle(), creator.getIdUser(), creator.getNickname(),
+        		categoryDTO.getIdCategory(), categoryDTO.getLabel(), levelDTO.getIdLevel(), levelDTO.getLabel(), quizz.getCreatedAt(), 0L, 0L, 0L);
+        QuizzDTO quizzDTO = QuizzMapper.toDTO(card);
+        TransactionUtils.runAfterCommit(() -> quizzSearchIndex.index(card));
         logger.info("Method createQuizz: Questions and answers of quizz with ID {} created sucessfully. Current User nickname: {}",
         		quizz.getIdQuizz(), currentUserNickname);
         return quizzDTO;
@@ -240,6 +292,7 @@ public class QuizzService {
      * Retrieves a paginated list of quizzes based on various filters.
      * Filters include title, creator nickname, category, and level. 
      * Only quizzes marked as visible are included.
+     * When a title or nickname is given, the quizzes are ranked by the QuizzSearchIndex once it is built.
      * 
      * @param page the page number to retrieve
      * @param size the size of the page
@@ -254,42 +307,133 @@ public class QuizzService {
     	logger.info("Entering method getQuizzes: User '{}'", currentUserDTO.getNickname());
     	
     	Pageable pageable = PaginationUtils.createPageableSortByDesc(page, size, "createdAt");
+    	
+    	// Text searches are ranked by the search index, which only hands out the IDs of the requested page
+    	if (isTextSearch(title, nickname) && quizzSearchIndex.isReady()) {
+    		QuizzSearchIndex.SearchResult result = quizzSearchIndex.search(title, nickname, categoryId, levelId, page, size);
+    		Page<QuizzWithLikeAndFavouriteDTO> pageQuizzWithLikeAndFavouriteDTO = new PageImpl<>(
+    				withLikeAndFavourite(findVisibleCards(result.ids()), currentUserDTO.getIdUser()), pageable, result.total());
+    		logger.info("Method getQuizzes: Search quizzes sucessfully. Current User nickname: {}",
+            		currentUserDTO.getNickname());
+    		return pageQuizzWithLikeAndFavouriteDTO;
+    	}
+    	
+        Page<QuizzCardDTO> quizzes = quizzRepository.findCards(buildQuizzesSpecification(title, nickname, categoryId, levelId), pageable);
         
-    	Specification<Quizz> titleOrNicknameSpec = Specification.where(null);
-        if (title != null && !title.isBlank()) {
-            titleOrNicknameSpec = titleOrNicknameSpec.or(QuizzSpecifications.hasTitleContaining(title));
-        }
-        if (nickname != null && !nickname.isBlank()) {
-            titleOrNicknameSpec = titleOrNicknameSpec.or(QuizzSpecifications.hasCreatorWithNickname(nickname));
-        }
-
-        Specification<Quizz> commonSpec = applyCommonSpecifications(categoryId, levelId);
-        Specification<Quizz> isVisibleSpec = QuizzSpecifications.isVisible();
-
-        Specification<Quizz> finalSpec = Specification.where(titleOrNicknameSpec)
-                .and(commonSpec != null ? commonSpec : Specification.where(null))
-                .and(isVisibleSpec);
-
-        Page<Quizz> quizzes = quizzRepository.findAll(finalSpec, pageable);
-        
-        User currentUser = userRepository.findById(SecurityUtils.getCurrentUser().getIdUser())
-		        .orElseThrow(() -> {
-		        	logger.warn("Method getQuizzes: User with ID {} not found. Current User nickname: {}",
-		        			SecurityUtils.getCurrentUser().getIdUser(), currentUserDTO.getNickname());
-		        	return new UserNotFoundException("User not found");
-		        });
-        
-        Page<QuizzWithLikeAndFavouriteDTO> pageQuizzWithLikeAndFavouriteDTO = quizzes.map(quizz -> {
-            boolean isLiked = this.quizzLikeRepository.existsByQuizzAndUser(quizz, currentUser);
-            boolean isFavourite = this.quizzFavouriteRepository.existsByQuizzAndUser(quizz, currentUser);
-
-            return QuizzMapper.toDTO(quizz, isLiked, isFavourite);
-        });
+        Page<QuizzWithLikeAndFavouriteDTO> pageQuizzWithLikeAndFavouriteDTO = new PageImpl<>(
+        		withLikeAndFavourite(quizzes.getContent(), currentUserDTO.getIdUser()), pageable, quizzes.getTotalElements());
         logger.info("Method getQuizzes: Get quizzes sucessfully. Current User nickname: {}",
         		currentUserDTO.getNickname());
         return pageQuizzWithLikeAndFavouriteDTO;
     }
     
+    /**
+     * Retrieves a slice of quizzes with the same filters as getQuizzes, without its count query.
+     * Text searches are ranked by the QuizzSearchIndex like in getQuizzes, so both listings return the same quizzes.
+     * 
+     * @param page the page number to retrieve
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param nickname the creator's nickname filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @param total the total mode: NONE for no total, APPROX for a total cached for a short while
+     * @return a slice of `QuizzWithLikeAndFavouriteDTO` objects
+     */
+    public SlicePageDTO<QuizzWithLikeAndFavouriteDTO> getQuizzesSlice(int page, int size, String title, String nickname, Integer categoryId, Integer levelId, TotalMode total) {
+    	UserDTO currentUserDTO = SecurityUtils.getCurrentUser();
+    	logger.info("Entering method getQuizzesSlice: User '{}'", currentUserDTO.getNickname());
+    	
+    	Pageable pageable = PaginationUtils.createPageableSortByDesc(page, size, "createdAt");
+    	
+    	// The index counts its matches anyway, so the total of a text search is exact and needs no cache
+    	if (isTextSearch(title, nickname) && quizzSearchIndex.isReady()) {
+    		QuizzSearchIndex.SearchResult result = quizzSearchIndex.search(title, nickname, categoryId, levelId, page, size);
+    		Slice<QuizzWithLikeAndFavouriteDTO> sliceQuizzWithLikeAndFavouriteDTO = new SliceImpl<>(
+    				withLikeAndFavourite(findVisibleCards(result.ids()), currentUserDTO.getIdUser()), pageable,
+    				(long) (page + 1) * size < result.total());
+    		logger.info("Method getQuizzesSlice: Search quizzes sucessfully. Current User nickname: {}",
+    				currentUserDTO.getNickname());
+    		return PaginationUtils.toSlicePageDTO(sliceQuizzWithLikeAndFavouriteDTO, total == TotalMode.APPROX ? result.total() : null);
+    	}
+    	
+    	Specification<Quizz> spec = buildQuizzesSpecification(title, nickname, categoryId, levelId);
+        Slice<QuizzCardDTO> quizzes = quizzRepository.findCardSlice(spec, pageable);
+        
+        Slice<QuizzWithLikeAndFavouriteDTO> sliceQuizzWithLikeAndFavouriteDTO = new SliceImpl<>(
+        		withLikeAndFavourite(quizzes.getContent(), currentUserDTO.getIdUser()), pageable, quizzes.hasNext());
+        Long approximateTotal = approximateTotalCache.resolve(total,
+        		ApproximateTotalCache.key("quizzes", "title", title, "nickname", nickname, "category", categoryId, "level", levelId),
+        		() -> quizzRepository.count(spec));
+        
+        logger.info("Method getQuizzesSlice: Get quizzes sucessfully. Current User nickname: {}",
+        		currentUserDTO.getNickname());
+        return PaginationUtils.toSlicePageDTO(sliceQuizzWithLikeAndFavouriteDTO, approximateTotal);
+    }
+    
+    /**
+     * Retrieves the quizzes with the most recent likes, favourites and plays.
+     * The ranking is maintained in memory by TrendingQuizzes, so no query is run.
+     * 
+     * @param size the maximum number of quizzes to return
+     * @return a list of `QuizzDTO` objects, the most active first
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public List<QuizzDTO> getTrendingQuizzes(int size) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getTrendingQuizzes: User '{}'", currentUserNickname);
+    	
+    	if (size <= 0) {
+    		logger.warn("Method getTrendingQuizzes: Invalid size {}. Current User nickname: {}", size, currentUserNickname);
+    		throw new IllegalArgumentException("The size must be positive");
+    	}
+    	return trendingQuizzes.getTop(size);
+    }
+    
+    /**
+     * Retrieves the quizzes following a cursor, with the same filters as getQuizzes.
+     * The page is located by seeking on (createdAt, idQuizz) instead of an offset, and no count query is run,
+     * so its cost does not depend on how deep the client has scrolled.
+     * Text searches are ranked by the QuizzSearchIndex like in getQuizzes, their cursor holding the rank of the next match.
+     * They are never run as a scan of the quizzes, so they are rejected until the index is built.
+     * 
+     * @param cursor the continuation token returned with the previous page, or a blank string for the first page
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param nickname the creator's nickname filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @return a cursor page of `QuizzWithLikeAndFavouriteDTO` objects
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive
+     * @throws ServiceUnavailableException if a text search is requested before the search index is built
+     */
+    public CursorPageDTO<QuizzWithLikeAndFavouriteDTO> getQuizzesByCursor(String cursor, int size, String title, String nickname, Integer categoryId, Integer levelId) {
+    	UserDTO currentUserDTO = SecurityUtils.getCurrentUser();
+    	logger.info("Entering method getQuizzesByCursor: User '{}'", currentUserDTO.getNickname());
+    	
+    	CursorPageDTO<QuizzCardDTO> cards;
+    	if (isTextSearch(title, nickname)) {
+    		if (!quizzSearchIndex.isReady()) {
+    			logger.warn("Method getQuizzesByCursor: Search index not built yet. Current User nickname: {}",
+    					currentUserDTO.getNickname());
+    			throw new ServiceUnavailableException("Search is not available yet, please try again later");
+    		}
+    		cards = searchCardsByCursor(title, nickname, categoryId, levelId, cursor, size);
+    	} else {
+    		cards = findCardsByCursor(buildQuizzesSpecification(title, nickname, categoryId, levelId), cursor, size);
+    	}
+    	CursorPageDTO<QuizzWithLikeAndFavouriteDTO> cursorPage = CursorPageDTO.<QuizzWithLikeAndFavouriteDTO>builder()
+    			.content(withLikeAndFavourite(cards.getContent(), currentUserDTO.getIdUser()))
+    			.size(cards.getSize())
+    			.hasNext(cards.isHasNext())
+    			.nextCursor(cards.getNextCursor())
+    			.build();
+    	
+    	logger.info("Method getQuizzesByCursor: Get quizzes sucessfully. Current User nickname: {}",
+        		currentUserDTO.getNickname());
+    	return cursorPage;
+    }
+    
     /**
      * Retrieves a paginated list of quizzes liked by the specified user.
      * 
@@ -332,6 +476,94 @@ public class QuizzService {
         return pageQuizzDTO;
     }
     
+    /**
+     * Retrieves a slice of quizzes liked by the specified user, without the count query of getLikedQuizzes.
+     * 
+     * @param userId the ID of the user who liked the quizzes
+     * @param page the page number to retrieve
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @param total the total mode: NONE for no total, APPROX for a total cached for a short while
+     * @return a slice of `QuizzDTO` objects
+     */
+    public SlicePageDTO<QuizzDTO> getLikedQuizzesSlice(int userId, int page, int size, String title, Integer categoryId, Integer levelId, TotalMode total) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getLikedQuizzesSlice: User '{}'", currentUserNickname);
+    	
+    	SlicePageDTO<QuizzDTO> slicePageDTO = getFilteredQuizzesSlice("likes", userId, QuizzSpecifications.isLikedByUser(userId), page, size, title, categoryId, levelId, total);
+    	logger.info("Method getLikedQuizzesSlice: Get liked quizzes sucessfully. Current User nickname: {}",
+        		currentUserNickname);
+    	return slicePageDTO;
+    }
+    
+    /**
+     * Retrieves a slice of quizzes favorited by the specified user, without the count query of getFavouriteQuizzes.
+     * 
+     * @param userId the ID of the user who favorited the quizzes
+     * @param page the page number to retrieve
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @param total the total mode: NONE for no total, APPROX for a total cached for a short while
+     * @return a slice of `QuizzDTO` objects
+     */
+    public SlicePageDTO<QuizzDTO> getFavouriteQuizzesSlice(int userId, int page, int size, String title, Integer categoryId, Integer levelId, TotalMode total) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getFavouriteQuizzesSlice: User '{}'", currentUserNickname);
+    	
+    	SlicePageDTO<QuizzDTO> slicePageDTO = getFilteredQuizzesSlice("favourites", userId, QuizzSpecifications.isFavouritedByUser(userId), page, size, title, categoryId, levelId, total);
+    	logger.info("Method getFavouriteQuizzesSlice: Get favourite quizzes sucessfully. Current User nickname: {}",
+        		currentUserNickname);
+    	return slicePageDTO;
+    }
+    
+    /**
+     * Retrieves the quizzes liked by the specified user following a cursor.
+     * 
+     * @param userId the ID of the user who liked the quizzes
+     * @param cursor the continuation token returned with the previous page, or a blank string for the first page
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @return a cursor page of `QuizzDTO` objects
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive
+     */
+    public CursorPageDTO<QuizzDTO> getLikedQuizzesByCursor(int userId, String cursor, int size, String title, Integer categoryId, Integer levelId) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getLikedQuizzesByCursor: User '{}'", currentUserNickname);
+    	
+    	CursorPageDTO<QuizzDTO> cursorPage = getFilteredQuizzesByCursor(QuizzSpecifications.isLikedByUser(userId), cursor, size, title, categoryId, levelId);
+    	logger.info("Method getLikedQuizzesByCursor: Get liked quizzes sucessfully. Current User nickname: {}",
+        		currentUserNickname);
+    	return cursorPage;
+    }
+    
+    /**
+     * Retrieves the quizzes favorited by the specified user following a cursor.
+     * 
+     * @param userId the ID of the user who favorited the quizzes
+     * @param cursor the continuation token returned with the previous page, or a blank string for the first page
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @return a cursor page of `QuizzDTO` objects
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive
+     */
+    public CursorPageDTO<QuizzDTO> getFavouriteQuizzesByCursor(int userId, String cursor, int size, String title, Integer categoryId, Integer levelId) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getFavouriteQuizzesByCursor: User '{}'", currentUserNickname);
+    	
+    	CursorPageDTO<QuizzDTO> cursorPage = getFilteredQuizzesByCursor(QuizzSpecifications.isFavouritedByUser(userId), cursor, size, title, categoryId, levelId);
+    	logger.info("Method getFavouriteQuizzesByCursor: Get favourite quizzes sucessfully. Current User nickname: {}",
+        		currentUserNickname);
+    	return cursorPage;
+    }
+    
     /**
      * A private helper method to retrieve quizzes based on common filters (title, category, level)
      * and additional specifications (such as liked or favorited quizzes).
@@ -352,10 +584,208 @@ public class QuizzService {
             spec = spec.and(additionalSpec);
         }
         
-        Page<Quizz> quizzes = quizzRepository.findAll(spec, pageable);
+        Page<QuizzCardDTO> quizzes = quizzRepository.findCards(spec, pageable);
         return quizzes.map(QuizzMapper::toDTO);
     }
     
+    /**
+     * A private helper method to retrieve a slice of quizzes based on common filters (title, category, level)
+     * and additional specifications (such as liked or favorited quizzes).
+     * 
+     * @param listing the name of the listing, used in the key of the approximate total
+     * @param userId the ID of the user the listing belongs to
+     * @param additionalSpec additional specification to apply (e.g., liked or favorited by the user)
+     * @param page the page number to retrieve
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @param total the total mode
+     * @return a slice of `QuizzDTO` objects
+     */
+    private SlicePageDTO<QuizzDTO> getFilteredQuizzesSlice(String listing, int userId, Specification<Quizz> additionalSpec, int page, int size, 
+    		String title, Integer categoryId, Integer levelId, TotalMode total) {
+    	Pageable pageable = PaginationUtils.createPageableSortByDesc(page, size, "createdAt");
+    	Specification<Quizz> spec = applyCommonSpecifications(title, categoryId, levelId).and(additionalSpec);
+    	
+    	Slice<QuizzDTO> quizzes = quizzRepository.findCardSlice(spec, pageable).map(QuizzMapper::toDTO);
+    	Long approximateTotal = approximateTotalCache.resolve(total,
+    			ApproximateTotalCache.key(listing, "user", userId, "title", title, "category", categoryId, "level", levelId),
+    			() -> quizzRepository.count(spec));
+    	
+    	return PaginationUtils.toSlicePageDTO(quizzes, approximateTotal);
+    }
+    
+    /**
+     * A private helper method to retrieve quizzes following a cursor, based on common filters (title, category, level)
+     * and additional specifications (such as liked or favorited quizzes).
+     * 
+     * @param additionalSpec additional specification to apply (e.g., liked or favorited by the user)
+     * @param cursor the continuation token, or a blank string for the first page
+     * @param size the size of the page
+     * @param title the title filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @return a cursor page of `QuizzDTO` objects
+     */
+    private CursorPageDTO<QuizzDTO> getFilteredQuizzesByCursor(Specification<Quizz> additionalSpec, String cursor, int size, String title, Integer categoryId, Integer levelId) {
+    	Specification<Quizz> spec = applyCommonSpecifications(title, categoryId, levelId).and(additionalSpec);
+    	CursorPageDTO<QuizzCardDTO> cards = findCardsByCursor(spec, cursor, size);
+    	
+    	return CursorPageDTO.<QuizzDTO>builder()
+    			.content(cards.getContent().stream().map(QuizzMapper::toDTO).collect(Collectors.toList()))
+    			.size(cards.getSize())
+    			.hasNext(cards.isHasNext())
+    			.nextCursor(cards.getNextCursor())
+    			.build();
+    }
+    
+    /**
+     * Retrieves the cards following a cursor in the (createdAt, idQuizz) descending order.
+     * One extra card is read to know whether another page follows.
+     * 
+     * @param spec the filters of the listing
+     * @param cursor the continuation token, or a blank string for the first page
+     * @param size the size of the page
+     * @return a cursor page of `QuizzCardDTO` records
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive
+     */
+    private CursorPageDTO<QuizzCardDTO> findCardsByCursor(Specification<Quizz> spec, String cursor, int size) {
+    	if (size < 1) {
+    		throw new IllegalArgumentException("Page size must be greater than zero");
+    	}
+    	
+    	PaginationUtils.Cursor position = PaginationUtils.decodeCursor(cursor);
+    	if (position != null) {
+    		spec = spec.and(QuizzSpecifications.isBefore(position.createdAt(), position.id()));
+    	}
+    	
+    	Sort sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "idQuizz"));
+    	List<QuizzCardDTO> cards = quizzRepository.findCards(spec, sort, size + 1);
+    	
+    	boolean hasNext = cards.size() > size;
+    	List<QuizzCardDTO> content = hasNext ? cards.subList(0, size) : cards;
+    	QuizzCardDTO last = content.isEmpty() ? null : content.get(content.size() - 1);
+    	
+    	return CursorPageDTO.<QuizzCardDTO>builder()
+    			.content(content)
+    			.size(size)
+    			.hasNext(hasNext)
+    			.nextCursor(hasNext ? PaginationUtils.encodeCursor(last.createdAt(), last.idQuizz()) : null)
+    			.build();
+    }
+    
+    /**
+     * Retrieves the matches of a text search following a cursor, in the order of relevance of the QuizzSearchIndex.
+     * The cursor holds the rank of the next match, the quizzes hidden since being indexed are left out of the page.
+     * 
+     * @param title the title text (optional)
+     * @param nickname the nickname text (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @param cursor the continuation token, or a blank string for the first page
+     * @param size the size of the page
+     * @return a cursor page of `QuizzCardDTO` records
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not positive
+     */
+    private CursorPageDTO<QuizzCardDTO> searchCardsByCursor(String title, String nickname, Integer categoryId, Integer levelId, String cursor, int size) {
+    	if (size < 1) {
+    		throw new IllegalArgumentException("Page size must be greater than zero");
+    	}
+    	
+    	long offset = PaginationUtils.decodeSearchCursor(cursor);
+    	QuizzSearchIndex.SearchResult result = quizzSearchIndex.searchFrom(title, nickname, categoryId, levelId, offset, size);
+    	boolean hasNext = offset + size < result.total();
+    	
+    	return CursorPageDTO.<QuizzCardDTO>builder()
+    			.content(findVisibleCards(result.ids()))
+    			.size(size)
+    			.hasNext(hasNext)
+    			.nextCursor(hasNext ? PaginationUtils.encodeSearchCursor(offset + size) : null)
+    			.build();
+    }
+    
+    /**
+     * Tells whether a listing searches on a title or nickname text.
+     * 
+     * @param title the title filter (optional)
+     * @param nickname the creator's nickname filter (optional)
+     * @return true if either text is given
+     */
+    private static boolean isTextSearch(String title, String nickname) {
+    	return (title != null && !title.isBlank()) || (nickname != null && !nickname.isBlank());
+    }
+    
+    /**
+     * Builds the filters of the main quizz listing: title or creator nickname, category, level and visibility.
+     * 
+     * @param title the title filter (optional)
+     * @param nickname the creator's nickname filter (optional)
+     * @param categoryId the category filter (optional)
+     * @param levelId the level filter (optional)
+     * @return a `Specification<Quizz>` object that can be used in repository queries
+     */
+    private Specification<Quizz> buildQuizzesSpecification(String title, String nickname, Integer categoryId, Integer levelId) {
+    	Specification<Quizz> titleOrNicknameSpec = Specification.where(null);
+        if (title != null && !title.isBlank()) {
+            titleOrNicknameSpec = titleOrNicknameSpec.or(QuizzSpecifications.hasTitleContaining(title));
+        }
+        if (nickname != null && !nickname.isBlank()) {
+            titleOrNicknameSpec = titleOrNicknameSpec.or(QuizzSpecifications.hasCreatorWithNickname(nickname));
+        }
+
+        Specification<Quizz> commonSpec = applyCommonSpecifications(categoryId, levelId);
+        Specification<Quizz> isVisibleSpec = QuizzSpecifications.isVisible();
+
+        return Specification.where(titleOrNicknameSpec)
+                .and(commonSpec != null ? commonSpec : Specification.where(null))
+                .and(isVisibleSpec);
+    }
+    
+    /**
+     * Retrieves the cards of the given quizzes that are still visible, in the order of the given IDs.
+     * 
+     * @param quizzIds the IDs of the quizzes, in the expected order
+     * @return a list of `QuizzCardDTO` records, without the quizzes hidden in the meantime
+     */
+    private List<QuizzCardDTO> findVisibleCards(List<Integer> quizzIds) {
+    	if (quizzIds.isEmpty()) {
+    		return List.of();
+    	}
+    	
+    	Map<Integer, QuizzCardDTO> cardsById = quizzRepository
+    			.findCards(QuizzSpecifications.isVisible().and(QuizzSpecifications.hasIdIn(quizzIds)), Sort.unsorted(), quizzIds.size())
+    			.stream()
+    			.collect(Collectors.toMap(QuizzCardDTO::idQuizz, Function.identity()));
+    	
+    	return quizzIds.stream()
+    			.map(cardsById::get)
+    			.filter(Objects::nonNull)
+    			.collect(Collectors.toList());
+    }
+    
+    /**
+     * Maps quizz cards to DTOs carrying whether the user liked and favourited each quizz.
+     * Both flags are resolved for all the cards with one query per table.
+     * 
+     * @param cards the quizz cards to map
+     * @param userId the ID of the user
+     * @return a list of `QuizzWithLikeAndFavouriteDTO` objects, in the order of the cards
+     */
+    private List<QuizzWithLikeAndFavouriteDTO> withLikeAndFavourite(List<QuizzCardDTO> cards, int userId) {
+    	if (cards.isEmpty()) {
+    		return List.of();
+    	}
+    	
+    	List<Integer> quizzIds = cards.stream().map(QuizzCardDTO::idQuizz).collect(Collectors.toList());
+    	Set<Integer> likedQuizzIds = quizzLikeRepository.findQuizzIdsByUserIdAndQuizzIdIn(userId, quizzIds);
+    	Set<Integer> favouriteQuizzIds = quizzFavouriteRepository.findQuizzIdsByUserIdAndQuizzIdIn(userId, quizzIds);
+    	
+    	return cards.stream()
+    			.map(card -> QuizzMapper.toDTO(card, likedQuizzIds.contains(card.idQuizz()), favouriteQuizzIds.contains(card.idQuizz())))
+    			.collect(Collectors.toList());
+    }
+    
     /**
      * Applies common specifications for filtering quizzes based on title, category label, and level label.
      * Also filters quizzes to only include those marked as visible.
@@ -0,0 +1,239 @@
+package mytimeacty.service.quizz;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import mytimeacty.mapper.QuizzMapper;
+import mytimeacty.model.quizzes.dto.QuizzCardDTO;
+import mytimeacty.model.quizzes.dto.QuizzDTO;
+import mytimeacty.repository.quizz.QuizzRepository;
+import mytimeacty.repository.quizzplay.QuizzPlayRepository;
+import mytimeacty.specification.QuizzSpecifications;
+import mytimeacty.utils.TransactionUtils;
+
+/**
+ * In-memory ranking of the quizzes with the most recent activity.
+ *
+ * Likes, favourites and plays are added to the bucket of the current time window, in a ring of buckets
+ * covering the trending period; a bucket is reused once it has fallen out of the period. The score of a quizz
+ * is the sum of its buckets, each one decayed by its age with the configured half-life.
+ * The top quizzes are ranked with a bounded heap on a fixed delay and published as an immutable list,
+ * so serving the feed is a read of that list.
+ */
+@Component
+public class TrendingQuizzes {
+
+	@Autowired
+	private QuizzRepository quizzRepository;
+
+	@Autowired
+	private QuizzPlayRepository quizzPlayRepository;
+
+	@Value("${trending.weight.like:3}")
+	private long likeWeight;
+
+	@Value("${trending.weight.favourite:4}")
+	private long favouriteWeight;
+
+	@Value("${trending.weight.play:1}")
+	private long playWeight;
+
+	@Value("${trending.half-life-minutes:360}")
+	private double halfLifeMinutes;
+
+	@Value("${trending.size:50}")
+	private int topSize;
+
+	private final long bucketMillis;
+
+	private final AtomicReferenceArray<Bucket> ring;
+
+	private volatile List<QuizzDTO> top = List.of();
+
+	private static final Logger logger = LoggerFactory.getLogger(TrendingQuizzes.class);
+
+	public TrendingQuizzes(@Value("${trending.bucket-minutes:60}") long bucketMinutes,
+						   @Value("${trending.buckets:24}") int buckets) {
+		this.bucketMillis = Duration.ofMinutes(bucketMinutes).toMillis();
+		this.ring = new AtomicReferenceArray<>(buckets);
+	}
+
+	/**
+	 * Counts a like or an unlike of a quizz once the current transaction commits.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param delta 1 for a like, -1 for an unlike.
+	 */
+	public void recordLikes(int quizzId, long delta) {
+		TransactionUtils.runAfterCommit(() -> add(quizzId, delta * likeWeight, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Counts a favourite or an unfavourite of a quizz once the current transaction commits.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param delta 1 for a favourite, -1 for an unfavourite.
+	 */
+	public void recordFavourites(int quizzId, long delta) {
+		TransactionUtils.runAfterCommit(() -> add(quizzId, delta * favouriteWeight, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Counts a play of a quizz once the current transaction commits.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 */
+	public void recordPlay(int quizzId) {
+		TransactionUtils.runAfterCommit(() -> add(quizzId, playWeight, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Drops a quizz from the ranking, once the current transaction commits. Used when the quizz is hidden.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 */
+	public void remove(int quizzId) {
+		TransactionUtils.runAfterCommit(() -> {
+			for (int i = 0; i < ring.length(); i++) {
+				Bucket bucket = ring.get(i);
+				if (bucket != null) {
+					bucket.scores().remove(quizzId);
+				}
+			}
+			top = top.stream().filter(quizz -> quizz.getIdQuizz() != quizzId).collect(Collectors.toUnmodifiableList());
+		});
+	}
+
+	/**
+	 * Retrieves the trending quizzes, as ranked by the last refresh.
+	 *
+	 * @param size the maximum number of quizzes to return.
+	 * @return the trending quizzes, the most active first.
+	 */
+	public List<QuizzDTO> getTop(int size) {
+		List<QuizzDTO> current = top;
+		return current.size() <= size ? current : current.subList(0, size);
+	}
+
+	/**
+	 * Fills the buckets with the plays of the trending period recorded in the database, so that a restarted node
+	 * does not serve an empty feed. Likes and favourites carry no date and are only counted from then on.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadOnStartup() {
+		long now = System.currentTimeMillis();
+		Instant since = Instant.ofEpochMilli((now / bucketMillis - ring.length() + 1) * bucketMillis);
+
+		List<Object[]> rows = quizzPlayRepository.countPlaysByQuizzAndBucketSince(since, bucketMillis);
+		for (Object[] row : rows) {
+			long bucketIndex = ((Number) row[1]).longValue();
+			add(((Number) row[0]).intValue(), ((Number) row[2]).longValue() * playWeight, bucketIndex * bucketMillis);
+		}
+		logger.info("Method loadOnStartup: {} buckets of plays loaded since {}", rows.size(), since);
+		refresh();
+	}
+
+	/**
+	 * Ranks the quizzes by their decayed score and publishes the top ones, with their cards loaded in one query.
+	 */
+	@Scheduled(fixedDelayString = "${trending.refresh-ms:10000}", initialDelayString = "${trending.refresh-ms:10000}")
+	public synchronized void refresh() {
+		long currentIndex = System.currentTimeMillis() / bucketMillis;
+		double bucketMinutes = bucketMillis / 60000.0;
+
+		Map<Integer, Double> scores = new HashMap<>();
+		for (int i = 0; i < ring.length(); i++) {
+			Bucket bucket = ring.get(i);
+			long age = bucket == null ? -1 : currentIndex - bucket.index();
+			if (age < 0 || age >= ring.length()) {
+				continue;
+			}
+			double decay = Math.pow(0.5, age * bucketMinutes / halfLifeMinutes);
+			bucket.scores().forEach((quizzId, score) -> scores.merge(quizzId, score.sum() * decay, Double::sum));
+		}
+
+		// Keep the best scores in a min-heap bounded to the size of the feed
+		PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+		for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+			if (entry.getValue() <= 0) {
+				continue;
+			}
+			heap.offer(entry);
+			if (heap.size() > topSize) {
+				heap.poll();
+			}
+		}
+		List<Integer> quizzIds = new ArrayList<>(heap.size());
+		while (!heap.isEmpty()) {
+			quizzIds.add(heap.poll().getKey());
+		}
+		Collections.reverse(quizzIds);
+
+		top = loadVisibleQuizzes(quizzIds);
+	}
+
+	private List<QuizzDTO> loadVisibleQuizzes(List<Integer> quizzIds) {
+		if (quizzIds.isEmpty()) {
+			return List.of();
+		}
+		Map<Integer, QuizzCardDTO> cardsById = quizzRepository
+				.findCards(QuizzSpecifications.isVisible().and(QuizzSpecifications.hasIdIn(quizzIds)), Sort.unsorted(), quizzIds.size())
+				.stream()
+				.collect(Collectors.toMap(QuizzCardDTO::idQuizz, Function.identity()));
+
+		return quizzIds.stream()
+				.map(cardsById::get)
+				.filter(Objects::nonNull)
+				.map(QuizzMapper::toDTO)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	private void add(int quizzId, long weight, long epochMillis) {
+		long index = epochMillis / bucketMillis;
+		int slot = (int) Math.floorMod(index, (long) ring.length());
+
+		Bucket bucket = ring.get(slot);
+		while (bucket == null || bucket.index() < index) {
+			// The slot still holds a bucket that fell out of the period, start a new one
+			Bucket fresh = new Bucket(index, new ConcurrentHashMap<>());
+			if (ring.compareAndSet(slot, bucket, fresh)) {
+				bucket = fresh;
+			} else {
+				bucket = ring.get(slot);
+			}
+		}
+		if (bucket.index() != index) {
+			// Event older than the period
+			return;
+		}
+		bucket.scores().computeIfAbsent(quizzId, id -> new LongAdder()).add(weight);
+	}
+
+	/**
+	 * Scores of the quizzes during one time window, identified by its index since the epoch.
+	 */
+	private record Bucket(long index, Map<Integer, LongAdder> scores) {
+	}
+}
@@ -0,0 +1,101 @@
+package mytimeacty.service.quizzplay;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable answer key of a quizz, used to validate and score a play without loading any entity.
+ *
+ * The answers are held in primitive arrays sorted by answer ID: a lookup is a binary search,
+ * the question of an answer is an index into the questions of the quizz and the correct answers are a bit set.
+ */
+public final class QuizzAnswerKey {
+
+	private final int[] answerIds;
+	private final int[] questionIndexes;
+	private final BitSet correct;
+	private final int questionCount;
+
+	private QuizzAnswerKey(int[] answerIds, int[] questionIndexes, BitSet correct, int questionCount) {
+		this.answerIds = answerIds;
+		this.questionIndexes = questionIndexes;
+		this.correct = correct;
+		this.questionCount = questionCount;
+	}
+
+	/**
+	 * Builds the answer key from the rows of QuizzQuestionRepository.findAnswerKeyRowsByQuizzId.
+	 *
+	 * @param rows the rows holding the question ID, the answer ID (null for a question without answer) and the correctness.
+	 * @return the answer key of the quizz.
+	 */
+	public static QuizzAnswerKey of(List<Object[]> rows) {
+		// Sort the rows by answer ID so that the arrays can be searched, answerless questions last
+		Object[][] sorted = rows.toArray(new Object[0][]);
+		Arrays.sort(sorted, (a, b) -> a[1] == null ? (b[1] == null ? 0 : 1)
+				: b[1] == null ? -1 : Integer.compare((Integer) a[1], (Integer) b[1]));
+
+		int[] questionIds = rows.stream().mapToInt(row -> (Integer) row[0]).distinct().sorted().toArray();
+		int answerCount = (int) rows.stream().filter(row -> row[1] != null).count();
+
+		int[] answerIds = new int[answerCount];
+		int[] questionIndexes = new int[answerCount];
+		BitSet correct = new BitSet(answerCount);
+		for (int i = 0; i < answerCount; i++) {
+			answerIds[i] = (Integer) sorted[i][1];
+			questionIndexes[i] = Arrays.binarySearch(questionIds, (Integer) sorted[i][0]);
+			if (Boolean.TRUE.equals(sorted[i][2])) {
+				correct.set(i);
+			}
+		}
+		return new QuizzAnswerKey(answerIds, questionIndexes, correct, questionIds.length);
+	}
+
+	/**
+	 * Finds the position of an answer in the key.
+	 *
+	 * @param answerId the ID of the answer.
+	 * @return the position of the answer, or a negative value if the answer does not belong to the quizz.
+	 */
+	public int indexOf(int answerId) {
+		return Arrays.binarySearch(answerIds, answerId);
+	}
+
+	/**
+	 * @param answerIndex the position of an answer, as returned by indexOf.
+	 * @return the index of the question of the answer, between 0 and the number of questions.
+	 */
+	public int questionIndex(int answerIndex) {
+		return questionIndexes[answerIndex];
+	}
+
+	/**
+	 * @param answerIndex the position of an answer, as returned by indexOf.
+	 * @return true if the answer is correct.
+	 */
+	public boolean isCorrect(int answerIndex) {
+		return correct.get(answerIndex);
+	}
+
+	/**
+	 * @return the number of answers of the quizz.
+	 */
+	public int answerCount() {
+		return answerIds.length;
+	}
+
+	/**
+	 * @return the number of questions of the quizz.
+	 */
+	public int questionCount() {
+		return questionCount;
+	}
+
+	/**
+	 * @return an estimate of the heap size of the key, in bytes.
+	 */
+	int estimatedSize() {
+		return 64 + 8 * answerIds.length + answerIds.length / 8;
+	}
+}
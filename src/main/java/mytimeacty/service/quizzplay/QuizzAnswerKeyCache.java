@@ -0,0 +1,45 @@
+package mytimeacty.service.quizzplay;
+
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of the answer keys of the quizzes.
+ *
+ * Questions and answers are never edited once the quizz is created, so a key never needs to be evicted
+ * for consistency; the cache is only bounded by the estimated size of the keys.
+ */
+@Component
+public class QuizzAnswerKeyCache {
+
+	private final Cache<Integer, QuizzAnswerKey> cache;
+
+	public QuizzAnswerKeyCache(@Value("${cache.answer-key.max-weight-bytes:16777216}") long maxWeightBytes,
+							   MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxWeightBytes)
+				.weigher((Integer quizzId, QuizzAnswerKey key) -> key.estimatedSize())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "quizzAnswerKeys");
+	}
+
+	/**
+	 * Retrieves the answer key of a quizz from the cache, loading it on a miss.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param loader the function used to load the key when it is not cached.
+	 * @return the QuizzAnswerKey of the quizz.
+	 */
+	public QuizzAnswerKey get(int quizzId, IntFunction<QuizzAnswerKey> loader) {
+		return cache.get(quizzId, id -> loader.apply(id));
+	}
+}
@@ -0,0 +1,111 @@
+package mytimeacty.service.quizzplay;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import mytimeacty.utils.TransactionUtils;
+
+/**
+ * Number of times each answer has been chosen, kept in the quizz_answer_stats table.
+ *
+ * Like QuizzCounters, each play only adds to in-memory deltas per answer, which are written on a fixed delay
+ * and on shutdown with one batched upsert in the order of the answer IDs. Reading the statistics of a quizz
+ * costs one lookup per answer, whatever the number of plays, and includes the deltas not written yet.
+ */
+@Component
+public class QuizzAnswerStats {
+
+	private static final String FLUSH_SQL = "INSERT INTO mytimeacty.quizz_answer_stats (id_answer, pick_count) VALUES (?, ?) "
+			+ "ON CONFLICT (id_answer) DO UPDATE SET pick_count = quizz_answer_stats.pick_count + EXCLUDED.pick_count";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final Map<Integer, Long> pending = new ConcurrentHashMap<>();
+
+	private static final Logger logger = LoggerFactory.getLogger(QuizzAnswerStats.class);
+
+	/**
+	 * Counts the answers chosen during a play once the current transaction commits.
+	 *
+	 * @param answerIds the IDs of the answers chosen.
+	 */
+	public void recordPicks(int[] answerIds) {
+		TransactionUtils.runAfterCommit(() -> {
+			for (int answerId : answerIds) {
+				pending.merge(answerId, 1L, Long::sum);
+			}
+		});
+	}
+
+	/**
+	 * Retrieves the number of times each of the given answers has been chosen.
+	 *
+	 * @param answerIds the IDs of the answers.
+	 * @return the count of each answer, 0 for an answer never chosen.
+	 */
+	public Map<Integer, Long> getPickCounts(Collection<Integer> answerIds) {
+		Map<Integer, Long> counts = new HashMap<>();
+		answerIds.forEach(answerId -> counts.put(answerId, pending.getOrDefault(answerId, 0L)));
+		if (answerIds.isEmpty()) {
+			return counts;
+		}
+
+		jdbcTemplate.query("SELECT id_answer, pick_count FROM mytimeacty.quizz_answer_stats WHERE id_answer = ANY (?)",
+				statement -> statement.setArray(1, statement.getConnection().createArrayOf("integer", answerIds.toArray())),
+				row -> {
+					counts.merge(row.getInt(1), row.getLong(2), Long::sum);
+				});
+		return counts;
+	}
+
+	/**
+	 * Writes the pending counts to the database. If the upsert fails, the counts are put back
+	 * and written with the next flush.
+	 */
+	@Scheduled(fixedDelayString = "${quizz-play.answer-stats.flush-ms:10000}")
+	@PreDestroy
+	public synchronized void flush() {
+		List<Integer> answerIds = new ArrayList<>(pending.keySet());
+		if (answerIds.isEmpty()) {
+			return;
+		}
+		answerIds.sort(null);
+
+		List<Object[]> batch = new ArrayList<>(answerIds.size());
+		for (Integer answerId : answerIds) {
+			// remove is atomic, a concurrent pick creates a new entry for the next flush
+			Long count = pending.remove(answerId);
+			if (count != null && count != 0) {
+				batch.add(new Object[] { answerId, count });
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+			logger.info("Method flush: Statistics of {} answers updated", batch.size());
+		} catch (Exception e) {
+			batch.forEach(row -> pending.merge((Integer) row[0], (Long) row[1], Long::sum));
+			logger.error("Method flush: Failed to update the statistics of {} answers, they will be retried", batch.size(), e);
+		}
+	}
+}
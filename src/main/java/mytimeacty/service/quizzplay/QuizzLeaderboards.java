@@ -0,0 +1,150 @@
+package mytimeacty.service.quizzplay;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mytimeacty.model.quizzplay.dto.LeaderboardEntryDTO;
+import mytimeacty.utils.TransactionUtils;
+
+/**
+ * In-memory leaderboards of the quizzes: the best play of each player, ranked by score and then by date.
+ *
+ * A leaderboard is loaded from the database the first time it is read, then kept up to date with each new play.
+ * Only the top of each leaderboard is kept. Since the best score of a player can only improve,
+ * a player who falls out of the top can only come back with a new play, which is offered to the leaderboard anyway.
+ */
+@Component
+public class QuizzLeaderboards {
+
+	private final Cache<Integer, Leaderboard> cache;
+
+	private final int leaderboardSize;
+
+	public QuizzLeaderboards(@Value("${leaderboard.size:100}") int leaderboardSize,
+							 @Value("${leaderboard.max-quizzes:10000}") long maxQuizzes,
+							 @Value("${leaderboard.idle-minutes:60}") long idleMinutes,
+							 MeterRegistry meterRegistry) {
+		this.leaderboardSize = leaderboardSize;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxQuizzes)
+				.expireAfterAccess(Duration.ofMinutes(idleMinutes))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "quizzLeaderboards");
+	}
+
+	/**
+	 * @return the number of players kept in each leaderboard.
+	 */
+	public int getLeaderboardSize() {
+		return leaderboardSize;
+	}
+
+	/**
+	 * Retrieves the leaderboard of a quizz, loading it on a miss.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param loader the function loading the top entries of the leaderboard from the database, best first.
+	 * @return the entries of the leaderboard, best first.
+	 */
+	public List<LeaderboardEntryDTO> get(int quizzId, IntFunction<List<LeaderboardEntryDTO>> loader) {
+		return cache.get(quizzId, id -> new Leaderboard(leaderboardSize, loader.apply(id))).snapshot();
+	}
+
+	/**
+	 * Offers a new play to the leaderboard of its quizz once the current transaction commits.
+	 * Nothing is done if the leaderboard is not loaded, it will read the play from the database when it is.
+	 * A load in progress is waited for, so that a play committed while it runs is not missed.
+	 *
+	 * @param quizzId the ID of the quizz.
+	 * @param entry the play, as an entry of the leaderboard.
+	 */
+	public void offer(int quizzId, LeaderboardEntryDTO entry) {
+		TransactionUtils.runAfterCommit(() -> cache.asMap().computeIfPresent(quizzId, (id, leaderboard) -> {
+			leaderboard.offer(entry);
+			return leaderboard;
+		}));
+	}
+
+	/**
+	 * Top of the leaderboard of one quizz, with the entry of each player in it.
+	 */
+	private static final class Leaderboard {
+
+		private static final Comparator<LeaderboardEntryDTO> RANKING = Comparator
+				.comparing(LeaderboardEntryDTO::getScore, Comparator.reverseOrder())
+				.thenComparing(LeaderboardEntryDTO::getPlayedAt)
+				.thenComparing(LeaderboardEntryDTO::getPlayerId);
+
+		private final int size;
+		private final TreeSet<LeaderboardEntryDTO> ranking = new TreeSet<>(RANKING);
+		private final Map<Integer, LeaderboardEntryDTO> byPlayer = new HashMap<>();
+		private volatile List<LeaderboardEntryDTO> snapshot;
+
+		private Leaderboard(int size, List<LeaderboardEntryDTO> entries) {
+			this.size = size;
+			entries.forEach(this::insert);
+			publish();
+		}
+
+		private List<LeaderboardEntryDTO> snapshot() {
+			return snapshot;
+		}
+
+		private synchronized void offer(LeaderboardEntryDTO entry) {
+			LeaderboardEntryDTO current = byPlayer.get(entry.getPlayerId());
+			if (current != null && RANKING.compare(current, entry) <= 0) {
+				// The player already has a better or equal play
+				return;
+			}
+			if (current == null && ranking.size() >= size && RANKING.compare(ranking.last(), entry) <= 0) {
+				// Not good enough to enter the top
+				return;
+			}
+			if (current != null) {
+				ranking.remove(current);
+			}
+			insert(entry);
+			publish();
+		}
+
+		private void insert(LeaderboardEntryDTO entry) {
+			ranking.add(entry);
+			byPlayer.put(entry.getPlayerId(), entry);
+			if (ranking.size() > size) {
+				LeaderboardEntryDTO last = ranking.pollLast();
+				byPlayer.remove(last.getPlayerId());
+			}
+		}
+
+		private void publish() {
+			List<LeaderboardEntryDTO> entries = new ArrayList<>(ranking.size());
+			int rank = 0;
+			for (LeaderboardEntryDTO entry : ranking) {
+				entries.add(LeaderboardEntryDTO.builder()
+						.rank(++rank)
+						.playerId(entry.getPlayerId())
+						.playerNickname(entry.getPlayerNickname())
+						.idQuizzPlay(entry.getIdQuizzPlay())
+						.score(entry.getScore())
+						.playedAt(entry.getPlayedAt())
+						.build());
+			}
+			snapshot = List.copyOf(entries);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package mytimeacty.service.quizzplay;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import mytimeacty.model.quizzplay.QuizzPlay;
+
+/**
+ * Hands out quizz play IDs before the plays are inserted, from blocks reserved on the quizz_play_seq sequence.
+ *
+ * Each value of the sequence reserves the block of IDs ending at that value, the same pooled scheme as the one
+ * Hibernate uses for the QuizzPlay entity, so the IDs given here never collide with the ones of the entity.
+ */
+@Component
+public class QuizzPlayIdAllocator {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long next;
+
+	private long last = -1;
+
+	/**
+	 * Reserves the next quizz play ID. The sequence is only queried once per block.
+	 *
+	 * @return an unused quizz play ID.
+	 */
+	public synchronized int next() {
+		if (next > last) {
+			Long hi = jdbcTemplate.queryForObject("SELECT nextval('mytimeacty.quizz_play_seq')", Long.class);
+			last = hi;
+			next = Math.max(hi - QuizzPlay.ID_ALLOCATION_SIZE + 1, 1);
+		}
+		return Math.toIntExact(next++);
+	}
+}
@@ -2,36 +2,57 @@ package mytimeacty.service.quizzplay;
 
 import java.time.Instant;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import mytimeacty.exception.ForbiddenException;
 import mytimeacty.exception.NotFoundException;
 import mytimeacty.exception.IllegalArgumentException;
 import mytimeacty.mapper.QuizzPlayMapper;
 import mytimeacty.mapper.UserAnswerMapper;
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+import mytimeacty.model.pagination.enums.TotalMode;
 import mytimeacty.model.quizzes.Quizz;
 import mytimeacty.model.quizzes.QuizzAnswer;
-import mytimeacty.model.quizzes.QuizzQuestion;
 import mytimeacty.model.quizzplay.QuizzPlay;
 import mytimeacty.model.quizzplay.UserAnswer;
+import mytimeacty.model.quizzes.dto.AnswerDTO;
+import mytimeacty.model.quizzes.dto.QuestionDTO;
+import mytimeacty.model.quizzes.dto.QuizzWithDetailsDTO;
+import mytimeacty.model.quizzplay.dto.AnswerStatsDTO;
+import mytimeacty.model.quizzplay.dto.LeaderboardEntryDTO;
+import mytimeacty.model.quizzplay.dto.QuestionStatsDTO;
 import mytimeacty.model.quizzplay.dto.QuizzPlayDTO;
 import mytimeacty.model.quizzplay.dto.QuizzPlayWithAnswerDTO;
 import mytimeacty.model.quizzplay.dto.UserAnswerDTO;
 import mytimeacty.model.quizzplay.dto.creation.UserAnswerCreateDTO;
+import mytimeacty.model.quizzplay.enums.AnswerStorageMode;
 import mytimeacty.model.users.User;
+import mytimeacty.model.users.dto.UserDTO;
+import mytimeacty.model.users.enums.UserRole;
 import mytimeacty.repository.UserRepository;
 import mytimeacty.repository.quizz.QuizzAnswerRepository;
+import mytimeacty.repository.quizz.QuizzQuestionRepository;
 import mytimeacty.repository.quizz.QuizzRepository;
 import mytimeacty.repository.quizzplay.QuizzPlayRepository;
+import mytimeacty.repository.quizzplay.QuizzPlayRepository.LeaderboardRow;
 import mytimeacty.repository.quizzplay.UserAnswerRepository;
+import mytimeacty.service.pagination.ApproximateTotalCache;
+import mytimeacty.service.quizz.QuizzCounters;
+import mytimeacty.service.quizz.QuizzService;
+import mytimeacty.service.quizz.TrendingQuizzes;
+import mytimeacty.service.quizzplay.QuizzPlayWriteBehind.PendingPlay;
+import mytimeacty.utils.AnswerIdsCodec;
 import mytimeacty.utils.PaginationUtils;
 import mytimeacty.utils.SecurityUtils;
 import org.springframework.data.domain.Pageable;
@@ -51,9 +72,42 @@ public class QuizzPlayService {
     @Autowired
     private QuizzAnswerRepository quizzAnswerRepository;
     
+    @Autowired
+    private QuizzQuestionRepository quizzQuestionRepository;
+    
+    @Autowired
+    private QuizzAnswerKeyCache quizzAnswerKeyCache;
+    
+    @Autowired
+    private QuizzPlayWriteBehind quizzPlayWriteBehind;
+    
+    @Autowired
+    private QuizzPlayIdAllocator quizzPlayIdAllocator;
+    
+    @Autowired
+    private QuizzLeaderboards quizzLeaderboards;
+    
+    @Autowired
+    private QuizzAnswerStats quizzAnswerStats;
+    
+    @Autowired
+    private QuizzService quizzService;
+    
+    @Value("${quizz-play.answers.storage:encoded}")
+    private AnswerStorageMode answerStorageMode;
+    
     @Autowired
     private UserAnswerRepository userAnswerRepository;
     
+    @Autowired
+    private ApproximateTotalCache approximateTotalCache;
+    
+    @Autowired
+    private QuizzCounters quizzCounters;
+    
+    @Autowired
+    private TrendingQuizzes trendingQuizzes;
+    
     private static final Logger logger = LoggerFactory.getLogger(QuizzPlayService.class);
     
     /**
@@ -79,6 +133,31 @@ public class QuizzPlayService {
         return pageQuizzPlayDTO;
     }
     
+    /**
+     * Retrieves a slice of `QuizzPlayDTO` objects associated with a specific quizz, without the count query of getQuizzPlaysByQuizz.
+     * The results are sorted in descending order based on the `playedAt` timestamp.
+     *
+     * @param quizzId the ID of the quizz for which plays are to be retrieved
+     * @param page the page number to retrieve
+     * @param size the size of the page
+     * @param total the total mode: NONE for no total, APPROX for a total cached for a short while
+     * @return a slice of `QuizzPlayDTO` objects
+     */
+    public SlicePageDTO<QuizzPlayDTO> getQuizzPlaysSliceByQuizz(int quizzId, int page, int size, TotalMode total) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getQuizzPlaysSliceByQuizz: User '{}'", currentUserNickname);
+    	
+        Pageable pageable = PaginationUtils.createPageableSortByDesc(page, size, "playedAt");
+        Slice<QuizzPlayDTO> quizzPlays = quizzPlayRepository.findSliceByQuizzIdQuizz(quizzId, pageable)
+        		.map(QuizzPlayMapper::toDTO);
+        Long approximateTotal = approximateTotalCache.resolve(total, ApproximateTotalCache.key("plays", "quizz", quizzId),
+        		() -> quizzPlayRepository.countByQuizzIdQuizz(quizzId));
+        
+        logger.info("Method getQuizzPlaysSliceByQuizz: Get quizz plays of quizz with ID {} sucessfully. Current User nickname: {}",
+        		quizzId, currentUserNickname);
+        return PaginationUtils.toSlicePageDTO(quizzPlays, approximateTotal);
+    }
+    
     
     /**
      * Retrieves a quizz play with all its answers.
@@ -98,10 +177,13 @@ public class QuizzPlayService {
 		        	return new NotFoundException("Quizz Play not found");
 		        });
     	
-    	List<UserAnswerDTO> userAnswerDTO = userAnswerRepository.findByQuizzPlayIdQuizzPlay(quizzPlayId)
-    			.stream()
-    			.map(UserAnswerMapper::toDTO)
-    			.collect(Collectors.toList());
+    	// Plays stored in either mode can coexist, the encoded answers are used when present
+    	List<UserAnswerDTO> userAnswerDTO = quizzPlay.getAnswersEncoded() != null
+    			? UserAnswerMapper.toDTOs(AnswerIdsCodec.decode(quizzPlay.getAnswersEncoded()))
+    			: userAnswerRepository.findByQuizzPlayIdQuizzPlay(quizzPlayId)
+	    			.stream()
+	    			.map(UserAnswerMapper::toDTO)
+	    			.collect(Collectors.toList());
     	
         
         logger.info("Method getAnswersByQuizzPlay: Answers for quizz play with ID {} retrieved sucessfully. Current User nickname: {}",
@@ -110,16 +192,81 @@ public class QuizzPlayService {
         return QuizzPlayMapper.withAnswerstoDTO(quizzPlay, userAnswerDTO);
     }
 
+    /**
+     * Retrieves the leaderboard of a quizz: the best play of each player, ties broken by the earliest play.
+     * The leaderboard is served from memory by QuizzLeaderboards, and loaded from the quizz plays the first time.
+     *
+     * @param quizzId the ID of the quizz
+     * @param size the maximum number of players to return
+     * @return a list of `LeaderboardEntryDTO` objects, the best first
+     * @throws NotFoundException if the quizz is not found
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public List<LeaderboardEntryDTO> getLeaderboard(int quizzId, int size) {
+    	String currentUserNickname = SecurityUtils.getCurrentUser().getNickname();
+    	logger.info("Entering method getLeaderboard: User '{}'", currentUserNickname);
+    	
+    	if (size <= 0) {
+    		logger.warn("Method getLeaderboard: Invalid size {}. Current User nickname: {}", size, currentUserNickname);
+    		throw new IllegalArgumentException("The size must be positive");
+    	}
+    	
+    	List<LeaderboardEntryDTO> leaderboard = quizzLeaderboards.get(quizzId, id -> loadLeaderboard(id, currentUserNickname));
+    	
+    	logger.info("Method getLeaderboard: Leaderboard of quizz with ID {} retrieved sucessfully. Current User nickname: {}",
+    			quizzId, currentUserNickname);
+    	return leaderboard.size() <= size ? leaderboard : leaderboard.subList(0, size);
+    }
+
+    /**
+     * Retrieves how the players answered each question of a quizz: the number of times each answer has been chosen
+     * and its share among the answers of the question. Only the creator of the quizz, admins and chiefs can see them.
+     * The counts are kept up to date by QuizzAnswerStats on each play, so the cost does not depend on the number of plays.
+     *
+     * @param quizzId the ID of the quizz
+     * @return a list of `QuestionStatsDTO` objects, in the order of the questions
+     * @throws NotFoundException if the quizz is not found
+     * @throws ForbiddenException if the current user is neither the creator of the quizz, an admin nor a chief
+     */
+    public List<QuestionStatsDTO> getAnswerStats(int quizzId) {
+    	UserDTO currentUser = SecurityUtils.getCurrentUser();
+    	logger.info("Entering method getAnswerStats: User '{}'", currentUser.getNickname());
+    	
+    	QuizzWithDetailsDTO quizzWithDetails = quizzService.getQuizzWithDetails(quizzId);
+    	
+    	if (!quizzWithDetails.getQuizz().getCreatorId().equals(currentUser.getIdUser())
+    			&& !currentUser.getUserRole().equals(UserRole.ADMIN.getRole())
+    			&& !currentUser.getUserRole().equals(UserRole.CHIEF.getRole())) {
+    		logger.warn("Method getAnswerStats: Only the creator of the quizz, admins and chiefs can see its answer statistics. Current User nickname: {}",
+    				currentUser.getNickname());
+    		throw new ForbiddenException("Only the creator of the quizz, admins and chiefs can see its answer statistics");
+    	}
+    	
+    	Map<Integer, Long> pickCounts = quizzAnswerStats.getPickCounts(quizzWithDetails.getQuestions().stream()
+    			.flatMap(question -> question.getAnswers().stream())
+    			.map(AnswerDTO::getIdAnswer)
+    			.collect(Collectors.toList()));
+    	
+    	List<QuestionStatsDTO> stats = quizzWithDetails.getQuestions().stream()
+    			.map(question -> toQuestionStats(question, pickCounts))
+    			.collect(Collectors.toList());
+    	
+    	logger.info("Method getAnswerStats: Answer statistics of quizz with ID {} retrieved sucessfully. Current User nickname: {}",
+    			quizzId, currentUser.getNickname());
+    	return stats;
+    }
+
     /**
      * Handles the process of recording user answers for a specific quizz.
      * This method validates that all questions have been answered and calculates the score for the quizz play.
-     * It then saves the user's quizz play and the corresponding answers.
+     * It then saves the user's quizz play and the corresponding answers, or hands them to the QuizzPlayWriteBehind
+     * pipeline when it is enabled, in which case the play is inserted shortly after the response.
      *
      * @param quizzId the ID of the quizz being played
      * @param userAnswerCreateDTOs a list of `UserAnswerCreateDTO` objects representing the user's answers
      * @return 
      * @throws NotFoundException if the quizz or any answer is not found
-     * @throws IllegalArgumentException if not all questions have been answered or if an answer does not belong to the quizz
+     * @throws IllegalArgumentException if not all questions have been answered, if an answer does not belong to the quizz or is submitted twice
      */
     @Transactional
     public QuizzPlayDTO handleUserAnswers(int quizzId, List<UserAnswerCreateDTO> userAnswerCreateDTOs) {
@@ -128,68 +275,83 @@ public class QuizzPlayService {
     	
     	// GETTERS /////
     	
-        Quizz quizz = quizzRepository.findById(quizzId)
-		        .orElseThrow(() -> {
-		        	logger.warn("Method handleUserAnswers: Quizz with ID {} not found. Current User nickname: {}",
-		        			quizzId, currentUserNickname);
-		        	return new NotFoundException("Quizz not found");
-		        });
-        
-        User currentUser = userRepository.findById(SecurityUtils.getCurrentUser().getIdUser())
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        // The answer key is cached, the quizz is only referenced by the play
+        QuizzAnswerKey answerKey = quizzAnswerKeyCache.get(quizzId, id -> loadAnswerKey(id, currentUserNickname));
+        Quizz quizz = quizzRepository.getReferenceById(quizzId);
         
         
         // CHECK IF ANSWERS BELONG TO THE QUIZZ AND IF ALL QUESTIONS HAS BEEN ANSWERED /////
         
-        // Get quizz's questions
-        Set<QuizzQuestion> quizzQuestions = quizz.getQuizzQuestions();
-        
-        // Map each UserAnswerCreateDTO to a QuizzAnswer
-        Map<Integer, QuizzAnswer> quizzAnswerMap = userAnswerCreateDTOs.stream()
-                .map(dto -> {
-                    QuizzAnswer answer = quizzAnswerRepository.findById(dto.getAnswerId())
-                            .orElseThrow(() -> {
-                                logger.warn("Method handleUserAnswers: Answer with ID {} not found. Current User nickname: {}",
-                                        quizzId, currentUserNickname);
-                                return new NotFoundException("Answer not found");
-                            });
-
-                    // Verify if the answer belongs to the current quizz's questions
-                    QuizzQuestion question = answer.getQuestion();
-                    if (!quizzQuestions.contains(question)) {
-                        logger.warn("Method handleUserAnswers: The answer (id: {}) does not belong to the quizz played (id: {}). Current User nickname: {}",
-                                answer.getIdAnswer(), quizzId, currentUserNickname);
-                        throw new IllegalArgumentException("The answer (id:" + answer.getIdAnswer() + ") does not belong to the quizz played");
-                    }
-
-                    return answer;
-                })
-                .collect(Collectors.toMap(QuizzAnswer::getIdAnswer, answer -> answer));
+        BitSet answeredQuestions = new BitSet(answerKey.questionCount());
+        BitSet submittedAnswers = new BitSet(answerKey.answerCount());
+        long correctAnswerCount = 0;
         
-        // Group answers by their corresponding question
-        Map<QuizzQuestion, List<QuizzAnswer>> answersByQuestion = quizzAnswerMap.values().stream()
-                .collect(Collectors.groupingBy(QuizzAnswer::getQuestion));
+        for (UserAnswerCreateDTO dto : userAnswerCreateDTOs) {
+        	int answerIndex = answerKey.indexOf(dto.getAnswerId());
+        	if (answerIndex < 0) {
+        		// The answer is not one of the quizz's, tell an unknown answer from an answer of another quizz
+        		if (!quizzAnswerRepository.existsById(dto.getAnswerId())) {
+        			logger.warn("Method handleUserAnswers: Answer with ID {} not found. Current User nickname: {}",
+        					dto.getAnswerId(), currentUserNickname);
+        			throw new NotFoundException("Answer not found");
+        		}
+        		logger.warn("Method handleUserAnswers: The answer (id: {}) does not belong to the quizz played (id: {}). Current User nickname: {}",
+        				dto.getAnswerId(), quizzId, currentUserNickname);
+        		throw new IllegalArgumentException("The answer (id:" + dto.getAnswerId() + ") does not belong to the quizz played");
+        	}
+        	if (submittedAnswers.get(answerIndex)) {
+        		logger.warn("Method handleUserAnswers: The answer (id: {}) has been submitted twice. Current User nickname: {}",
+        				dto.getAnswerId(), currentUserNickname);
+        		throw new IllegalArgumentException("The answer (id:" + dto.getAnswerId() + ") has been submitted twice");
+        	}
+        	submittedAnswers.set(answerIndex);
+        	answeredQuestions.set(answerKey.questionIndex(answerIndex));
+        	if (answerKey.isCorrect(answerIndex)) {
+        		correctAnswerCount++;
+        	}
+        }
         
         // Check if all questions are answered
-        if (answersByQuestion.size() != quizzQuestions.size()) {
+        if (answeredQuestions.cardinality() != answerKey.questionCount()) {
         	logger.warn("Method handleUserAnswers: Not all questions have been answered. Current User nickname: {}",
         			quizzId, currentUserNickname);
             throw new IllegalArgumentException("Not all questions have been answered.");
         }
 
         // CALCULATE SCORE /////
-        
-        // Calculate the number of correct answers
-        long correctAnswerCount = answersByQuestion.values().stream()
-                .flatMap(List::stream)
-                .filter(QuizzAnswer::getIsCorrect)
-                .count();
 
         // Calculate the score
         double score = (double) correctAnswerCount / userAnswerCreateDTOs.size() * 100.0;
+        int[] answerIds = userAnswerCreateDTOs.stream().mapToInt(UserAnswerCreateDTO::getAnswerId).toArray();
+        
+        
+        // QUEUE THE QUIZZ PLAY WHEN THE WRITE-BEHIND PIPELINE IS ENABLED /////
+        
+        if (quizzPlayWriteBehind.isEnabled()) {
+        	UserDTO player = SecurityUtils.getCurrentUser();
+        	PendingPlay pendingPlay = new PendingPlay(quizzPlayIdAllocator.next(), quizzId, player.getIdUser(), player.getNickname(),
+        			score, Instant.now(), answerIds);
+        	
+        	// The counters, statistics and leaderboard are updated by the pipeline once the play is inserted
+        	if (quizzPlayWriteBehind.submit(pendingPlay)) {
+        		logger.info("Method handleUserAnswers: Quizz play with ID {} for quizz with ID {} queued sucessfully. Current User nickname: {}",
+        				pendingPlay.idQuizzPlay(), quizzId, currentUserNickname);
+        		
+        		return QuizzPlayDTO.builder()
+        				.idQuizzPlay(pendingPlay.idQuizzPlay())
+        				.quizzId(quizzId)
+        				.player(player)
+        				.score(score)
+        				.playedAt(pendingPlay.playedAt())
+        				.build();
+        	}
+        }
         
         
         // SAVE THE QUIZZ PLAY /////
+        
+        User currentUser = userRepository.findById(SecurityUtils.getCurrentUser().getIdUser())
+                .orElseThrow(() -> new NotFoundException("User not found"));
 
         // Build QuizzPlay
         QuizzPlay quizzPlayTemp = QuizzPlay.builder()
@@ -198,8 +360,16 @@ public class QuizzPlayService {
                 .score(score)
                 .playedAt(Instant.now())
                 .build();
+        if (answerStorageMode == AnswerStorageMode.ENCODED) {
+        	quizzPlayTemp.setAnswersEncoded(AnswerIdsCodec.encode(answerIds));
+        }
         
         QuizzPlay quizzPlay = quizzPlayRepository.save(quizzPlayTemp);
+        quizzCounters.addPlay(quizzId);
+        trendingQuizzes.recordPlay(quizzId);
+        quizzAnswerStats.recordPicks(answerIds);
+        quizzLeaderboards.offer(quizzId,
+        		toLeaderboardEntry(quizzPlay.getIdQuizzPlay(), SecurityUtils.getCurrentUser(), score, quizzPlay.getPlayedAt()));
         
         logger.info("Method handleUserAnswers: Quizz play for quizz with ID {} created sucessfully. Current User nickname: {}",
         		quizzId, currentUserNickname);
@@ -207,10 +377,15 @@ public class QuizzPlayService {
         
         // SAVE USER ANSWERS OF THE QUIZZ PLAY /////
         
+        if (answerStorageMode == AnswerStorageMode.ENCODED) {
+        	// Already stored with the play
+        	return QuizzPlayMapper.toDTO(quizzPlay);
+        }
+        
         // Bind answers to QuizzPlay
         List<UserAnswer> userAnswers = userAnswerCreateDTOs.stream()
                 .map(dto -> {
-                	QuizzAnswer answer = quizzAnswerMap.get(dto.getAnswerId());
+                	QuizzAnswer answer = quizzAnswerRepository.getReferenceById(dto.getAnswerId());
                     
                     return UserAnswer.builder()
                             .quizzPlay(quizzPlay)
@@ -226,6 +401,86 @@ public class QuizzPlayService {
         
         return QuizzPlayMapper.toDTO(quizzPlay);
     }
-
     
+    /**
+     * Loads the answer key of a quizz from its questions and answers.
+     * 
+     * @param quizzId the ID of the quizz
+     * @param currentUserNickname the nickname of the current user, for logging
+     * @return the QuizzAnswerKey of the quizz
+     * @throws NotFoundException if the quizz is not found
+     */
+    private QuizzAnswerKey loadAnswerKey(int quizzId, String currentUserNickname) {
+    	List<Object[]> rows = quizzQuestionRepository.findAnswerKeyRowsByQuizzId(quizzId);
+    	if (rows.isEmpty() && !quizzRepository.existsById(quizzId)) {
+    		logger.warn("Method handleUserAnswers: Quizz with ID {} not found. Current User nickname: {}",
+    				quizzId, currentUserNickname);
+    		throw new NotFoundException("Quizz not found");
+    	}
+    	return QuizzAnswerKey.of(rows);
+    }
+    
+    /**
+     * Loads the top of the leaderboard of a quizz from its plays.
+     * 
+     * @param quizzId the ID of the quizz
+     * @param currentUserNickname the nickname of the current user, for logging
+     * @return the entries of the leaderboard, the best first
+     * @throws NotFoundException if the quizz is not found
+     */
+    private List<LeaderboardEntryDTO> loadLeaderboard(int quizzId, String currentUserNickname) {
+    	List<LeaderboardRow> rows = quizzPlayRepository.findLeaderboard(quizzId, quizzLeaderboards.getLeaderboardSize());
+    	if (rows.isEmpty() && !quizzRepository.existsById(quizzId)) {
+    		logger.warn("Method getLeaderboard: Quizz with ID {} not found. Current User nickname: {}",
+    				quizzId, currentUserNickname);
+    		throw new NotFoundException("Quizz not found");
+    	}
+    	return rows.stream()
+    			.map(row -> LeaderboardEntryDTO.builder()
+    					.playerId(row.getPlayerId())
+    					.playerNickname(row.getPlayerNickname())
+    					.idQuizzPlay(row.getIdQuizzPlay())
+    					.score(row.getScore())
+    					.playedAt(row.getPlayedAt())
+    					.build())
+    			.collect(Collectors.toList());
+    }
+    
+    private static QuestionStatsDTO toQuestionStats(QuestionDTO question, Map<Integer, Long> pickCounts) {
+    	long questionPicks = question.getAnswers().stream()
+    			.mapToLong(answer -> pickCounts.getOrDefault(answer.getIdAnswer(), 0L))
+    			.sum();
+    	
+    	List<AnswerStatsDTO> answers = question.getAnswers().stream()
+    			.map(answer -> {
+    				long answerPicks = pickCounts.getOrDefault(answer.getIdAnswer(), 0L);
+    				return AnswerStatsDTO.builder()
+    						.idAnswer(answer.getIdAnswer())
+    						.answer(answer.getAnswer())
+    						.numAnswer(answer.getNumAnswer())
+    						.isCorrect(answer.getIsCorrect())
+    						.pickCount(answerPicks)
+    						.share(questionPicks == 0 ? 0.0 : (double) answerPicks / questionPicks * 100.0)
+    						.build();
+    			})
+    			.collect(Collectors.toList());
+    	
+    	return QuestionStatsDTO.builder()
+    			.idQuestion(question.getIdQuestion())
+    			.question(question.getQuestion())
+    			.numQuestion(question.getNumQuestion())
+    			.pickCount(questionPicks)
+    			.answers(answers)
+    			.build();
+    }
+    
+    private static LeaderboardEntryDTO toLeaderboardEntry(int idQuizzPlay, UserDTO player, double score, Instant playedAt) {
+    	return LeaderboardEntryDTO.builder()
+    			.playerId(player.getIdUser())
+    			.playerNickname(player.getNickname())
+    			.idQuizzPlay(idQuizzPlay)
+    			.score(score)
+    			.playedAt(playedAt)
+    			.build();
+    }
 }
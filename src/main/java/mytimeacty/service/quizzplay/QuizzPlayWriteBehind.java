@@ -0,0 +1,514 @@
+package mytimeacty.service.quizzplay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import mytimeacty.model.quizzplay.dto.LeaderboardEntryDTO;
+import mytimeacty.model.quizzplay.enums.AnswerStorageMode;
+import mytimeacty.service.quizz.QuizzCounters;
+import mytimeacty.service.quizz.TrendingQuizzes;
+import mytimeacty.utils.AnswerIdsCodec;
+
+/**
+ * Opt-in write-behind pipeline of the quizz plays.
+ *
+ * A submitted play is appended to a local write-ahead log, one JSON line per play, then to a bounded queue,
+ * and the client gets its score right away. A dedicated thread drains the queue and inserts the plays and their
+ * answers with multi-row statements, in one transaction per batch. The log is split in segments, and a segment
+ * is deleted once every play it holds has been committed.
+ *
+ * The counters, trending ranking, answer statistics and leaderboards only learn of a play once it is committed,
+ * with the plays actually inserted by a batch, so a play is counted once whether it is flushed or replayed.
+ *
+ * After a crash the segments left are replayed at startup. The plays are inserted with ON CONFLICT DO NOTHING
+ * and the answers only for the plays actually inserted, so replaying a play already committed has no effect.
+ * A segment that cannot be replayed is renamed with a .quarantined suffix and left for an operator.
+ *
+ * A batch that fails while the database is unreachable is kept and retried. A batch rejected by the database
+ * is retried play by play, and the plays rejected again are appended to the dead-letter file of the log
+ * directory, so that one bad play neither blocks the pipeline nor takes the other plays of its batch with it.
+ */
+@Component
+public class QuizzPlayWriteBehind {
+
+	private static final String SEGMENT_PREFIX = "quizz-plays-";
+	private static final String SEGMENT_SUFFIX = ".wal";
+	private static final String QUARANTINE_SUFFIX = ".quarantined";
+	private static final String DEAD_LETTER_FILE = "dead-letter-quizz-plays.jsonl";
+
+	private static final String INSERT_ANSWER_SQL = "INSERT INTO mytimeacty.user_answers (id_quizz_play, id_answer) VALUES (?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private QuizzCounters quizzCounters;
+
+	@Autowired
+	private TrendingQuizzes trendingQuizzes;
+
+	@Autowired
+	private QuizzAnswerStats quizzAnswerStats;
+
+	@Autowired
+	private QuizzLeaderboards quizzLeaderboards;
+
+	@Autowired
+	@Qualifier("quizzPlayFlushExecutor")
+	private ThreadPoolExecutor quizzPlayFlushExecutor;
+
+	@Value("${quizz-play.write-behind.enabled:false}")
+	private boolean enabled;
+
+	@Value("${quizz-play.write-behind.wal-dir:wal}")
+	private String walDir;
+
+	@Value("${quizz-play.write-behind.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${quizz-play.write-behind.batch-size:500}")
+	private int batchSize;
+
+	@Value("${quizz-play.write-behind.segment-max-bytes:16777216}")
+	private long segmentMaxBytes;
+
+	@Value("${quizz-play.write-behind.fsync:false}")
+	private boolean fsync;
+
+	@Value("${quizz-play.answers.storage:encoded}")
+	private AnswerStorageMode answerStorageMode;
+
+	private final Object appendLock = new Object();
+
+	private BlockingQueue<QueuedPlay> queue;
+
+	private Path directory;
+
+	private FileChannel segment;
+
+	private long segmentNumber;
+
+	private long firstLiveSegment;
+
+	// Batch drained from the queue and not committed yet, only used by the flushing thread
+	private final List<QueuedPlay> pendingBatch = new ArrayList<>();
+
+	private static final Logger logger = LoggerFactory.getLogger(QuizzPlayWriteBehind.class);
+
+	/**
+	 * A quizz play scored and waiting to be inserted.
+	 *
+	 * @param idQuizzPlay the ID reserved for the play.
+	 * @param quizzId the ID of the quizz played.
+	 * @param playerId the ID of the player.
+	 * @param playerNickname the nickname of the player, shown in the leaderboard.
+	 * @param score the score of the play.
+	 * @param playedAt the instant of the play.
+	 * @param answerIds the IDs of the answers given.
+	 */
+	public record PendingPlay(int idQuizzPlay, int quizzId, int playerId, String playerNickname, double score, Instant playedAt, int[] answerIds) {
+	}
+
+	private record QueuedPlay(PendingPlay play, long segment) {
+	}
+
+	/**
+	 * Opens a new log segment after the ones left by a previous run, which are replayed once the application is ready.
+	 */
+	@PostConstruct
+	public void open() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		directory = Paths.get(walDir);
+		Files.createDirectories(directory);
+
+		long lastSegment = listSegments().stream().mapToLong(QuizzPlayWriteBehind::segmentNumber).max().orElse(0);
+		firstLiveSegment = lastSegment + 1;
+		segmentNumber = firstLiveSegment;
+		segment = openSegment(segmentNumber);
+	}
+
+	/**
+	 * @return true if the plays are to be submitted to this pipeline.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Logs a play and queues it for insertion.
+	 *
+	 * @param play the play to insert.
+	 * @return true if the play has been accepted, false if the queue is full or the log cannot be written,
+	 *         in which case the caller has to insert the play itself.
+	 */
+	public boolean submit(PendingPlay play) {
+		byte[] line;
+		try {
+			line = (objectMapper.writeValueAsString(play) + "\n").getBytes(StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			logger.error("Method submit: Failed to serialize the quizz play with ID {}", play.idQuizzPlay(), e);
+			return false;
+		}
+
+		synchronized (appendLock) {
+			// Only this method adds to the queue, under the lock, so the capacity checked here is still available below
+			if (queue.remainingCapacity() == 0) {
+				logger.warn("Method submit: Write-behind queue full, quizz play with ID {} inserted directly", play.idQuizzPlay());
+				return false;
+			}
+			try {
+				if (segment.size() >= segmentMaxBytes) {
+					rotate();
+				}
+				ByteBuffer buffer = ByteBuffer.wrap(line);
+				while (buffer.hasRemaining()) {
+					segment.write(buffer);
+				}
+				if (fsync) {
+					segment.force(false);
+				}
+			} catch (IOException e) {
+				logger.error("Method submit: Failed to log the quizz play with ID {}", play.idQuizzPlay(), e);
+				return false;
+			}
+			queue.add(new QueuedPlay(play, segmentNumber));
+		}
+		return true;
+	}
+
+	/**
+	 * Hands a flush of the queue to the flushing thread. Nothing is queued if a flush is already pending.
+	 */
+	@Scheduled(fixedDelayString = "${quizz-play.write-behind.flush-ms:200}")
+	public void schedule() {
+		if (enabled) {
+			quizzPlayFlushExecutor.execute(this::flush);
+		}
+	}
+
+	/**
+	 * Inserts the queued plays batch by batch until the queue is empty, then deletes the log segments fully committed.
+	 * A batch that fails because the database is unreachable is kept and retried first by the next flush.
+	 * A batch rejected by the database is inserted play by play instead, see {@link #flushOneByOne()}.
+	 */
+	synchronized void flush() {
+		while (true) {
+			if (pendingBatch.isEmpty()) {
+				queue.drainTo(pendingBatch, batchSize);
+			}
+			if (pendingBatch.isEmpty()) {
+				break;
+			}
+			List<PendingPlay> plays = pendingBatch.stream().map(QueuedPlay::play).collect(Collectors.toList());
+			try {
+				transactionTemplate.executeWithoutResult(status -> insertBatch(plays));
+				pendingBatch.clear();
+			} catch (Exception e) {
+				if (isUnavailable(e)) {
+					logger.error("Method flush: Failed to insert a batch of {} quizz plays, it will be retried", plays.size(), e);
+					break;
+				}
+				logger.warn("Method flush: A batch of {} quizz plays has been rejected, retrying it play by play", plays.size(), e);
+				if (!flushOneByOne()) {
+					break;
+				}
+			}
+		}
+		deleteCommittedSegments();
+	}
+
+	/**
+	 * Inserts the plays of the pending batch one by one, each in its own transaction.
+	 * A play rejected by the database is moved to the dead-letter file. If the database becomes unreachable,
+	 * the plays not inserted yet stay in the pending batch.
+	 *
+	 * @return true if the pending batch has been emptied, false if it has to be retried.
+	 */
+	private boolean flushOneByOne() {
+		while (!pendingBatch.isEmpty()) {
+			PendingPlay play = pendingBatch.get(0).play();
+			try {
+				transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(play)));
+			} catch (Exception e) {
+				if (isUnavailable(e)) {
+					logger.error("Method flushOneByOne: Failed to insert the quizz play with ID {}, it will be retried", play.idQuizzPlay(), e);
+					return false;
+				}
+				deadLetter(play, e);
+			}
+			pendingBatch.remove(0);
+		}
+		return true;
+	}
+
+	/**
+	 * Appends a play rejected by the database to the dead-letter file. If the file cannot be written,
+	 * the play is logged in full instead.
+	 */
+	private void deadLetter(PendingPlay play, Exception cause) {
+		String line = null;
+		try {
+			line = objectMapper.writeValueAsString(play);
+			Files.writeString(directory.resolve(DEAD_LETTER_FILE), line + "\n", StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+			logger.error("Method deadLetter: Quizz play with ID {} rejected by the database, moved to {}: {}",
+					play.idQuizzPlay(), DEAD_LETTER_FILE, line, cause);
+		} catch (IOException e) {
+			logger.error("Method deadLetter: Quizz play with ID {} rejected by the database and not written to {}: {}",
+					play.idQuizzPlay(), DEAD_LETTER_FILE, line != null ? line : play, cause);
+		}
+	}
+
+	/**
+	 * Tells a failure caused by a database that cannot be reached, worth retrying as is,
+	 * from a batch rejected by the database.
+	 */
+	private static boolean isUnavailable(Exception e) {
+		return e instanceof TransientDataAccessException
+				|| e instanceof DataAccessResourceFailureException
+				|| e instanceof TransactionException;
+	}
+
+	/**
+	 * Replays the log segments left by a previous run, then deletes them.
+	 * A segment that fails to replay is quarantined and the others are still replayed, so that the application starts.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void replay() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		for (Path path : listSegments()) {
+			if (segmentNumber(path) >= firstLiveSegment) {
+				continue;
+			}
+			try {
+				int count = replaySegment(path);
+				Files.delete(path);
+				logger.info("Method replay: {} quizz plays of {} replayed", count, path);
+			} catch (Exception e) {
+				quarantine(path, e);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the plays of a log segment batch by batch.
+	 *
+	 * @return the number of plays read from the segment.
+	 */
+	private int replaySegment(Path path) throws IOException {
+		List<PendingPlay> plays = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					plays.add(objectMapper.readValue(line, PendingPlay.class));
+				} catch (IOException e) {
+					// A line cut by the crash, the play was never acknowledged
+					logger.warn("Method replay: Skipped an unreadable line of {}", path);
+				}
+			}
+		}
+		for (int from = 0; from < plays.size(); from += batchSize) {
+			List<PendingPlay> batch = plays.subList(from, Math.min(from + batchSize, plays.size()));
+			transactionTemplate.executeWithoutResult(status -> insertBatch(batch));
+		}
+		return plays.size();
+	}
+
+	/**
+	 * Renames a segment that failed to replay, so that it is not replayed again at each startup.
+	 * Its plays can be replayed by renaming it back once the cause is fixed, the ones already inserted are skipped.
+	 */
+	private void quarantine(Path path, Exception cause) {
+		// Timestamped, since the segment numbers start over once the segments of a run are gone
+		Path quarantined = path.resolveSibling(path.getFileName() + "." + System.currentTimeMillis() + QUARANTINE_SUFFIX);
+		try {
+			Files.move(path, quarantined);
+			logger.error("Method replay: Failed to replay {}, quarantined as {}", path, quarantined, cause);
+		} catch (IOException e) {
+			logger.error("Method replay: Failed to replay {} and to quarantine it", path, cause);
+		}
+	}
+
+	/**
+	 * Writes what is left in the queue before the application stops.
+	 */
+	@PreDestroy
+	public void close() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		flush();
+		synchronized (appendLock) {
+			segment.close();
+		}
+	}
+
+	/**
+	 * Inserts the plays that are not in the database yet, then the answers of the ones inserted
+	 * unless they are stored encoded with the plays. The plays inserted are recorded once the transaction commits.
+	 */
+	private void insertBatch(List<PendingPlay> plays) {
+		boolean encoded = answerStorageMode == AnswerStorageMode.ENCODED;
+		String values = String.join(", ", Collections.nCopies(plays.size(), "(?, ?, ?, ?, ?, ?)"));
+		List<Object> args = new ArrayList<>(plays.size() * 6);
+		for (PendingPlay play : plays) {
+			args.add(play.idQuizzPlay());
+			args.add(play.quizzId());
+			args.add(play.playerId());
+			args.add(play.score());
+			args.add(Timestamp.from(play.playedAt()));
+			args.add(new SqlParameterValue(Types.BINARY, encoded ? AnswerIdsCodec.encode(play.answerIds()) : null));
+		}
+		Set<Integer> inserted = Set.copyOf(jdbcTemplate.queryForList(
+				"INSERT INTO mytimeacty.quizz_play (id_quizz_play, id_quizz, id_player, score, played_at, answers_encoded) VALUES " + values
+						+ " ON CONFLICT (id_quizz_play) DO NOTHING RETURNING id_quizz_play",
+				Integer.class, args.toArray()));
+		record(plays, inserted);
+		if (encoded) {
+			return;
+		}
+
+		List<Object[]> answers = new ArrayList<>();
+		for (PendingPlay play : plays) {
+			if (inserted.contains(play.idQuizzPlay())) {
+				for (int answerId : play.answerIds()) {
+					answers.add(new Object[] { play.idQuizzPlay(), answerId });
+				}
+			}
+		}
+		// Rewritten into multi-row inserts by the driver
+		jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, answers);
+	}
+
+	/**
+	 * Records the plays inserted in the counters, trending ranking, answer statistics and leaderboards
+	 * once the current transaction commits. The plays already in the database are skipped, they have been recorded
+	 * when they were inserted.
+	 */
+	private void record(List<PendingPlay> plays, Set<Integer> inserted) {
+		for (PendingPlay play : plays) {
+			if (!inserted.contains(play.idQuizzPlay())) {
+				continue;
+			}
+			quizzCounters.addPlay(play.quizzId());
+			trendingQuizzes.recordPlay(play.quizzId());
+			quizzAnswerStats.recordPicks(play.answerIds());
+			quizzLeaderboards.offer(play.quizzId(), LeaderboardEntryDTO.builder()
+					.playerId(play.playerId())
+					.playerNickname(play.playerNickname())
+					.idQuizzPlay(play.idQuizzPlay())
+					.score(play.score())
+					.playedAt(play.playedAt())
+					.build());
+		}
+	}
+
+	/**
+	 * Deletes the segments older than the oldest play not committed yet. When every play is committed,
+	 * the current segment is rotated so that it can be deleted as well.
+	 */
+	private void deleteCommittedSegments() {
+		long oldestNeeded;
+		synchronized (appendLock) {
+			QueuedPlay oldest = pendingBatch.isEmpty() ? queue.peek() : pendingBatch.get(0);
+			try {
+				if (oldest == null && segment.size() > 0) {
+					rotate();
+				}
+			} catch (IOException e) {
+				logger.error("Method deleteCommittedSegments: Failed to rotate the write-behind log", e);
+			}
+			oldestNeeded = oldest == null ? segmentNumber : oldest.segment();
+		}
+
+		try {
+			for (Path path : listSegments()) {
+				long number = segmentNumber(path);
+				// The segments of a previous run belong to the replay
+				if (number >= firstLiveSegment && number < oldestNeeded) {
+					Files.delete(path);
+				}
+			}
+		} catch (IOException e) {
+			logger.error("Method deleteCommittedSegments: Failed to delete the committed segments of the write-behind log", e);
+		}
+	}
+
+	private void rotate() throws IOException {
+		segment.close();
+		segmentNumber++;
+		segment = openSegment(segmentNumber);
+	}
+
+	private FileChannel openSegment(long number) throws IOException {
+		return FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	private List<Path> listSegments() throws IOException {
+		try (Stream<Path> paths = Files.list(directory)) {
+			return paths.filter(path -> {
+						String name = path.getFileName().toString();
+						return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+					})
+					.sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static long segmentNumber(Path path) {
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
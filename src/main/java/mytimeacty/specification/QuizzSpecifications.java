@@ -1,5 +1,8 @@
 package mytimeacty.specification;
 
+import java.time.Instant;
+import java.util.Collection;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.Join;
@@ -87,4 +90,50 @@ public class QuizzSpecifications {
     public static Specification<Quizz> isVisible() {
         return (root, query, criteriaBuilder) -> criteriaBuilder.isTrue(root.get("isVisible"));
     }
+    
+    /**
+     * Creates a specification to filter quizzes placed after a cursor in the (createdAt, idQuizz) descending order.
+     * The redundant bound on createdAt lets the database seek the (created_at, id_quizz) index directly.
+     *
+     * @param createdAt the creation date of the last quizz already returned
+     * @param idQuizz the ID of the last quizz already returned
+     * @return a specification that filters quizzes created before the given position
+     */
+    public static Specification<Quizz> isBefore(Instant createdAt, Integer idQuizz) {
+        return (root, query, builder) -> builder.and(
+        		builder.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+        		builder.or(
+        				builder.lessThan(root.get("createdAt"), createdAt),
+        				builder.lessThan(root.get("idQuizz"), idQuizz)));
+    }
+    
+    /**
+     * Creates a specification to filter quizzes whose ID is among the given ones.
+     *
+     * @param quizzIds the IDs of the quizzes to keep
+     * @return a specification that filters quizzes by ID
+     */
+    public static Specification<Quizz> hasIdIn(Collection<Integer> quizzIds) {
+        return (root, query, builder) -> root.get("idQuizz").in(quizzIds);
+    }
+    
+    /**
+     * Creates a specification to filter quizzes whose ID is greater than the given one.
+     *
+     * @param idQuizz the ID after which quizzes are kept
+     * @return a specification that filters quizzes by ID
+     */
+    public static Specification<Quizz> hasIdGreaterThan(Integer idQuizz) {
+        return (root, query, builder) -> builder.greaterThan(root.get("idQuizz"), idQuizz);
+    }
+    
+    /**
+     * Creates a specification to filter quizzes created after the given instant.
+     *
+     * @param createdAt the instant after which quizzes are kept
+     * @return a specification that filters quizzes by creation date
+     */
+    public static Specification<Quizz> isCreatedAfter(Instant createdAt) {
+        return (root, query, builder) -> builder.greaterThan(root.get("createdAt"), createdAt);
+    }
 }
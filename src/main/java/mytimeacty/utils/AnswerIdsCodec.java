@@ -0,0 +1,78 @@
+package mytimeacty.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of the answer IDs chosen during a quizz play.
+ *
+ * The IDs are sorted and written as the count followed by the differences between consecutive IDs,
+ * each one zigzag-encoded and written as a variable-length integer. The answers of a quizz are created together,
+ * so the differences are small and most IDs take a single byte.
+ */
+public class AnswerIdsCodec {
+
+	/**
+	 * Encodes answer IDs. Their order is not kept.
+	 *
+	 * @param answerIds the answer IDs to encode.
+	 * @return the encoded IDs.
+	 */
+	public static byte[] encode(int[] answerIds) {
+		int[] sorted = answerIds.clone();
+		Arrays.sort(sorted);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length + 5);
+		writeVarInt(out, sorted.length);
+		int previous = 0;
+		for (int answerId : sorted) {
+			int delta = answerId - previous;
+			writeVarInt(out, (delta << 1) ^ (delta >> 31));
+			previous = answerId;
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes answer IDs encoded by encode.
+	 *
+	 * @param encoded the encoded IDs.
+	 * @return the answer IDs, in ascending order.
+	 * @throws IllegalArgumentException if the encoded value is truncated or malformed.
+	 */
+	public static int[] decode(byte[] encoded) {
+		int[] position = { 0 };
+		int count = readVarInt(encoded, position);
+		int[] answerIds = new int[count];
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			int zigzag = readVarInt(encoded, position);
+			previous += (zigzag >>> 1) ^ -(zigzag & 1);
+			answerIds[i] = previous;
+		}
+		return answerIds;
+	}
+
+	private static void writeVarInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarInt(byte[] encoded, int[] position) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (position[0] >= encoded.length) {
+				throw new IllegalArgumentException("Truncated encoded answers");
+			}
+			byte b = encoded[position[0]++];
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed encoded answers");
+	}
+}
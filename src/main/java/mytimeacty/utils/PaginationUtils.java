@@ -1,9 +1,17 @@
 package mytimeacty.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
+import mytimeacty.exception.IllegalArgumentException;
+import mytimeacty.model.pagination.dto.SlicePageDTO;
+
 public class PaginationUtils {
 	
 	/**
@@ -40,4 +48,104 @@ public class PaginationUtils {
 	public static Pageable createPageableSortByAsc(int page, int size, String sortBy) {
         return PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, sortBy));
     }
-}
+	
+	/**
+	 * Position of the last item of a cursor page, sorted by creation date then ID, both descending.
+	 *
+	 * @param createdAt the creation date of the last item
+	 * @param id the ID of the last item
+	 */
+	public record Cursor(Instant createdAt, Integer id) {}
+	
+	/**
+	 * Encodes a cursor position into an opaque, URL-safe continuation token.
+	 *
+	 * @param createdAt the creation date of the last item of the page
+	 * @param id the ID of the last item of the page
+	 * @return the continuation token
+	 */
+	public static String encodeCursor(Instant createdAt, Integer id) {
+		String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Decodes a continuation token produced by encodeCursor.
+	 *
+	 * @param token the continuation token, or a blank string for the first page
+	 * @return the decoded Cursor, or null for the first page
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	public static Cursor decodeCursor(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split(":");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			return new Cursor(createdAt, Integer.valueOf(parts[2]));
+		} catch (java.lang.IllegalArgumentException | java.time.DateTimeException e) {
+			// NumberFormatException and Base64 errors are both java.lang.IllegalArgumentException
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+	
+	/**
+	 * Encodes the rank of the next match of a text search into an opaque, URL-safe continuation token.
+	 * Text searches are ranked by relevance, so they are not located by a (createdAt, id) position.
+	 *
+	 * @param offset the rank of the first match of the next page
+	 * @return the continuation token
+	 */
+	public static String encodeSearchCursor(long offset) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(("search:" + offset).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Decodes a continuation token produced by encodeSearchCursor.
+	 *
+	 * @param token the continuation token, or a blank string for the first page
+	 * @return the rank of the first match of the page, 0 for the first page
+	 * @throws IllegalArgumentException if the token is malformed, for example a token of a listing that is not a text search
+	 */
+	public static long decodeSearchCursor(String token) {
+		if (token == null || token.isBlank()) {
+			return 0;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			if (!raw.startsWith("search:")) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			long offset = Long.parseLong(raw.substring("search:".length()));
+			if (offset < 0) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			return offset;
+		} catch (java.lang.IllegalArgumentException e) {
+			// NumberFormatException and Base64 errors are both java.lang.IllegalArgumentException
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+	}
+	
+	/**
+	 * Converts a slice to the DTO returned by the count-free listings.
+	 *
+	 * @param slice the slice of content
+	 * @param approximateTotal the approximate total of the listing, or null if it was not requested
+	 * @return a SlicePageDTO carrying the content, the position and whether another page follows
+	 */
+	public static <T> SlicePageDTO<T> toSlicePageDTO(Slice<T> slice, Long approximateTotal) {
+		return SlicePageDTO.<T>builder()
+				.content(slice.getContent())
+				.page(slice.getNumber())
+				.size(slice.getSize())
+				.hasNext(slice.hasNext())
+				.approximateTotal(approximateTotal)
+				.build();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package mytimeacty.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtils {
+
+	/**
+	 * Runs the given action once the current transaction has been committed.
+	 * If no transaction is active, the action is run immediately.
+	 *
+	 * @param action the action to run after commit
+	 */
+	public static void runAfterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,81 @@
+-- Schema of the application before the versioned migrations, as it was generated from the entities.
+-- Databases created before Flyway was introduced already have it and are baselined at this version,
+-- so this script only runs on an empty schema.
+CREATE TABLE mytimeacty.users (
+    id_user INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    nickname VARCHAR(20) NOT NULL UNIQUE,
+    pwd VARCHAR(60) NOT NULL,
+    user_role VARCHAR(255) NOT NULL,
+    user_previous_role VARCHAR(255) NOT NULL,
+    is_activated BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE mytimeacty.followers (
+    id_follower INTEGER NOT NULL REFERENCES mytimeacty.users (id_user),
+    id_user_followed INTEGER NOT NULL REFERENCES mytimeacty.users (id_user),
+    PRIMARY KEY (id_follower, id_user_followed)
+);
+
+CREATE TABLE mytimeacty.quizz_categories (
+    id_category INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    label VARCHAR(15) NOT NULL UNIQUE
+);
+
+CREATE TABLE mytimeacty.quizz_levels (
+    id_level INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    label VARCHAR(15) NOT NULL UNIQUE
+);
+
+CREATE TABLE mytimeacty.quizzes (
+    id_quizz INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_creator INTEGER NOT NULL REFERENCES mytimeacty.users (id_user),
+    title VARCHAR(100) NOT NULL,
+    id_level INTEGER NOT NULL REFERENCES mytimeacty.quizz_levels (id_level),
+    id_category INTEGER NOT NULL REFERENCES mytimeacty.quizz_categories (id_category),
+    is_visible BOOLEAN NOT NULL,
+    img VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE mytimeacty.quizz_questions (
+    id_question INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    question VARCHAR(255) NOT NULL,
+    id_quizz INTEGER NOT NULL REFERENCES mytimeacty.quizzes (id_quizz),
+    num_question INTEGER NOT NULL
+);
+
+CREATE TABLE mytimeacty.quizz_answers (
+    id_answer INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    answer VARCHAR(255) NOT NULL,
+    id_question INTEGER NOT NULL REFERENCES mytimeacty.quizz_questions (id_question),
+    num_answer INTEGER NOT NULL,
+    is_correct BOOLEAN NOT NULL
+);
+
+CREATE TABLE mytimeacty.quizz_likes (
+    id_quizz INTEGER NOT NULL REFERENCES mytimeacty.quizzes (id_quizz),
+    id_user INTEGER NOT NULL REFERENCES mytimeacty.users (id_user),
+    PRIMARY KEY (id_quizz, id_user)
+);
+
+CREATE TABLE mytimeacty.quizz_favourites (
+    id_quizz INTEGER NOT NULL REFERENCES mytimeacty.quizzes (id_quizz),
+    id_user INTEGER NOT NULL REFERENCES mytimeacty.users (id_user),
+    PRIMARY KEY (id_quizz, id_user)
+);
+
+CREATE TABLE mytimeacty.quizz_play (
+    id_quizz_play INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_quizz INTEGER NOT NULL REFERENCES mytimeacty.quizzes (id_quizz),
+    id_player INTEGER NOT NULL REFERENCES mytimeacty.users (id_user),
+    score FLOAT(53) NOT NULL,
+    played_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE mytimeacty.user_answers (
+    id_user_answer INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_quizz_play INTEGER NOT NULL REFERENCES mytimeacty.quizz_play (id_quizz_play),
+    id_answer INTEGER NOT NULL REFERENCES mytimeacty.quizz_answers (id_answer)
+);
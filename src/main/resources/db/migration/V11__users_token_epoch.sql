@@ -0,0 +1,5 @@
+-- Token epoch of each user, bumped on a ban or a role change to revoke the tokens issued before it.
+-- The stateless authorization mode refreshes its revocations from the users whose epoch changed recently.
+ALTER TABLE mytimeacty.users ADD COLUMN IF NOT EXISTS token_epoch BIGINT;
+
+CREATE INDEX IF NOT EXISTS ix_users_token_epoch ON mytimeacty.users (token_epoch);
@@ -0,0 +1,3 @@
+-- Mails claimed by a dispatcher are leased until this instant while they are sent outside of any transaction.
+-- A mail whose lease ran out, because its dispatcher died while sending it, becomes due again.
+ALTER TABLE mytimeacty.mail_outbox ADD COLUMN IF NOT EXISTS in_flight_until TIMESTAMP(6) WITH TIME ZONE;
@@ -0,0 +1,34 @@
+-- Case-insensitive lookups on email and nickname (login, registration, activation)
+-- are served by these expression indexes, which also enforce case-insensitive uniqueness.
+
+-- Users created before these indexes may differ only by the case of their email or nickname,
+-- which would make the index creation fail with a bare duplicate key error. They are listed here instead.
+-- Such accounts must be merged, or their nickname/email changed, by hand before migrating again:
+--   SELECT lower(email), array_agg(id_user ORDER BY id_user) FROM mytimeacty.users GROUP BY lower(email) HAVING count(*) > 1;
+--   SELECT lower(nickname), array_agg(id_user ORDER BY id_user) FROM mytimeacty.users GROUP BY lower(nickname) HAVING count(*) > 1;
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(format('%s ''%s'' (user IDs %s)', field, value, ids), '; ')
+    INTO conflicts
+    FROM (
+        SELECT 'email' AS field, lower(email) AS value, string_agg(id_user::TEXT, ', ' ORDER BY id_user) AS ids
+        FROM mytimeacty.users
+        GROUP BY lower(email)
+        HAVING count(*) > 1
+        UNION ALL
+        SELECT 'nickname', lower(nickname), string_agg(id_user::TEXT, ', ' ORDER BY id_user)
+        FROM mytimeacty.users
+        GROUP BY lower(nickname)
+        HAVING count(*) > 1
+    ) duplicates;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Users differing only by case must be merged or renamed before creating the case-insensitive unique indexes: %', conflicts
+            USING HINT = 'See the queries at the top of V1__users_lower_email_nickname_indexes.sql';
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_lower_email ON mytimeacty.users (lower(email));
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_lower_nickname ON mytimeacty.users (lower(nickname));
@@ -0,0 +1,17 @@
+-- Verification e-mails are written here inside the registration transaction
+-- and sent in batches by the outbox dispatcher.
+CREATE TABLE IF NOT EXISTS mytimeacty.mail_outbox (
+    id_mail BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(100) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- Only the pending rows are polled, oldest first
+CREATE INDEX IF NOT EXISTS ix_mail_outbox_pending ON mytimeacty.mail_outbox (next_attempt_at, id_mail) WHERE status = 'PENDING';
@@ -0,0 +1,7 @@
+-- Cursor pagination of the quizz listings seeks on (created_at, id_quizz) in descending order.
+-- Only visible quizzes are listed, so the index is partial.
+CREATE INDEX IF NOT EXISTS ix_quizzes_visible_created_at_id ON mytimeacty.quizzes (created_at DESC, id_quizz DESC) WHERE is_visible;
+
+-- Liked and favourite listings start from the user; the primary keys of these tables lead with id_quizz.
+CREATE INDEX IF NOT EXISTS ix_quizz_likes_user_quizz ON mytimeacty.quizz_likes (id_user, id_quizz);
+CREATE INDEX IF NOT EXISTS ix_quizz_favourites_user_quizz ON mytimeacty.quizz_favourites (id_user, id_quizz);
@@ -0,0 +1,5 @@
+-- Nickname search is a contains-match on lower(nickname), which a B-tree index cannot serve.
+-- A trigram GIN index serves LIKE '%...%' and provides the similarity() used to rank the results.
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+CREATE INDEX IF NOT EXISTS ix_users_lower_nickname_trgm ON mytimeacty.users USING gin (lower(nickname) public.gin_trgm_ops);
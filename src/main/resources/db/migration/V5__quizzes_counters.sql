@@ -0,0 +1,10 @@
+-- Denormalized counters shown on the quizz cards, incremented by QuizzCounters in batched deltas.
+ALTER TABLE mytimeacty.quizzes ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE mytimeacty.quizzes ADD COLUMN IF NOT EXISTS favourite_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE mytimeacty.quizzes ADD COLUMN IF NOT EXISTS play_count BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill the counters from the existing rows
+UPDATE mytimeacty.quizzes q SET
+	like_count = (SELECT COUNT(*) FROM mytimeacty.quizz_likes l WHERE l.id_quizz = q.id_quizz),
+	favourite_count = (SELECT COUNT(*) FROM mytimeacty.quizz_favourites f WHERE f.id_quizz = q.id_quizz),
+	play_count = (SELECT COUNT(*) FROM mytimeacty.quizz_play p WHERE p.id_quizz = q.id_quizz);
@@ -0,0 +1,17 @@
+-- Quizzes, questions and answers take their IDs from pooled sequences, so that Hibernate can batch their inserts.
+-- The sequences increment by the allocation size of the entities: each value reserves the block of IDs below it.
+CREATE SEQUENCE IF NOT EXISTS mytimeacty.quizzes_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS mytimeacty.quizz_questions_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS mytimeacty.quizz_answers_seq INCREMENT BY 50;
+
+SELECT setval('mytimeacty.quizzes_seq', GREATEST(COALESCE((SELECT MAX(id_quizz) FROM mytimeacty.quizzes), 0), 1));
+SELECT setval('mytimeacty.quizz_questions_seq', GREATEST(COALESCE((SELECT MAX(id_question) FROM mytimeacty.quizz_questions), 0), 1));
+SELECT setval('mytimeacty.quizz_answers_seq', GREATEST(COALESCE((SELECT MAX(id_answer) FROM mytimeacty.quizz_answers), 0), 1));
+
+-- Inserts that do not provide an ID draw from the same sequences; a single value is never part of a block handed to Hibernate
+ALTER TABLE mytimeacty.quizzes ALTER COLUMN id_quizz DROP IDENTITY IF EXISTS;
+ALTER TABLE mytimeacty.quizzes ALTER COLUMN id_quizz SET DEFAULT nextval('mytimeacty.quizzes_seq');
+ALTER TABLE mytimeacty.quizz_questions ALTER COLUMN id_question DROP IDENTITY IF EXISTS;
+ALTER TABLE mytimeacty.quizz_questions ALTER COLUMN id_question SET DEFAULT nextval('mytimeacty.quizz_questions_seq');
+ALTER TABLE mytimeacty.quizz_answers ALTER COLUMN id_answer DROP IDENTITY IF EXISTS;
+ALTER TABLE mytimeacty.quizz_answers ALTER COLUMN id_answer SET DEFAULT nextval('mytimeacty.quizz_answers_seq');
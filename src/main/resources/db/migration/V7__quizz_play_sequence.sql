@@ -0,0 +1,8 @@
+-- Quizz plays take their IDs from a pooled sequence, shared by Hibernate and the write-behind pipeline
+-- which reserves blocks of IDs to answer before the play is inserted.
+CREATE SEQUENCE IF NOT EXISTS mytimeacty.quizz_play_seq INCREMENT BY 50;
+
+SELECT setval('mytimeacty.quizz_play_seq', GREATEST(COALESCE((SELECT MAX(id_quizz_play) FROM mytimeacty.quizz_play), 0), 1));
+
+ALTER TABLE mytimeacty.quizz_play ALTER COLUMN id_quizz_play DROP IDENTITY IF EXISTS;
+ALTER TABLE mytimeacty.quizz_play ALTER COLUMN id_quizz_play SET DEFAULT nextval('mytimeacty.quizz_play_seq');
@@ -0,0 +1,3 @@
+-- The leaderboard of a quizz reads the best play of each player with DISTINCT ON (id_player),
+-- which this index serves in order without sorting the plays of the quizz.
+CREATE INDEX IF NOT EXISTS ix_quizz_play_quizz_player_best ON mytimeacty.quizz_play (id_quizz, id_player, score DESC, played_at ASC);
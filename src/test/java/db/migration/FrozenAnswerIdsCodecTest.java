@@ -0,0 +1,56 @@
+package db.migration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import mytimeacty.utils.AnswerIdsCodec;
+
+/**
+ * Checks that the copies of AnswerIdsCodec frozen in the migrations still speak the format of the application:
+ * the plays encoded by V8 are read by AnswerIdsCodec, and the plays encoded by AnswerIdsCodec are read by V10.
+ */
+class FrozenAnswerIdsCodecTest {
+
+	private static final List<int[]> SAMPLES = List.of(
+			new int[0],
+			new int[] { 42 },
+			new int[] { 12, 3, 15, 7 },
+			new int[] { 101, 102, 103, 104 },
+			new int[] { 1, 128, 16_384, 2_097_152, 268_435_456, 1_000_000_000 },
+			new int[] { Integer.MAX_VALUE },
+			new int[] { 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE });
+
+	@Test
+	void v8EncodingIsTheCodecEncoding() {
+		for (int[] answerIds : SAMPLES) {
+			assertArrayEquals(AnswerIdsCodec.encode(answerIds), V8__Encode_user_answers.encode(answerIds));
+		}
+	}
+
+	@Test
+	void codecDecodesWhatV8Encoded() {
+		for (int[] answerIds : SAMPLES) {
+			assertArrayEquals(AnswerIdsCodec.decode(AnswerIdsCodec.encode(answerIds)),
+					AnswerIdsCodec.decode(V8__Encode_user_answers.encode(answerIds)));
+		}
+	}
+
+	@Test
+	void v10DecodesWhatTheCodecEncoded() {
+		for (int[] answerIds : SAMPLES) {
+			byte[] encoded = AnswerIdsCodec.encode(answerIds);
+			assertArrayEquals(AnswerIdsCodec.decode(encoded), V10__Quizz_answer_stats.decode(encoded));
+		}
+	}
+
+	@Test
+	void v10DecodesWhatV8Encoded() {
+		for (int[] answerIds : SAMPLES) {
+			assertArrayEquals(AnswerIdsCodec.decode(AnswerIdsCodec.encode(answerIds)),
+					V10__Quizz_answer_stats.decode(V8__Encode_user_answers.encode(answerIds)));
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package mytimeacty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base of the tests that run the application against a real PostgreSQL database.
+ *
+ * The database is an embedded PostgreSQL started once per test run, and its schema is created by the
+ * Flyway migrations exactly as on a fresh install. The environment variables read by application.properties
+ * are given test values.
+ *
+ * Every test shares these properties, so that a single application context is cached for the whole run.
+ * Mails go to a local SMTP server on port 3025, started by the tests that need one, and the outbox is only
+ * drained when a test asks for it. Hibernate statistics are collected to count the statements of a request.
+ */
+@SpringBootTest(properties = {
+		"PROFILE=test",
+		"JWT_SECRET=test-secret-of-at-least-thirty-two-bytes",
+		"MAIL_USERNAME=noreply@mytimeacty.test",
+		"MAIL_PASSWORD=test",
+		"CORS_ORIGIN_ALLOWED_NAME=http://localhost:3000",
+		"DATASOURCE.DIALECT=org.hibernate.dialect.PostgreSQLDialect",
+		"spring.mail.host=localhost",
+		"spring.mail.port=" + AbstractPostgresTest.SMTP_PORT,
+		"spring.mail.properties.mail.smtp.auth=false",
+		"spring.mail.properties.mail.smtp.starttls.enable=false",
+		"mail.outbox.poll-ms=3600000",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public abstract class AbstractPostgresTest {
+
+	protected static final int SMTP_PORT = 3025;
+
+	private static final EmbeddedPostgres POSTGRES = start();
+
+	@DynamicPropertySource
+	static void datasourceProperties(DynamicPropertyRegistry registry) {
+		registry.add("DATASOURCE.URL", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+		registry.add("DATASOURCE.USERNAME", () -> "postgres");
+		registry.add("DATASOURCE.PASSWORD", () -> "");
+	}
+
+	private static EmbeddedPostgres start() {
+		try {
+			return EmbeddedPostgres.start();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to start the embedded PostgreSQL", e);
+		}
+	}
+}
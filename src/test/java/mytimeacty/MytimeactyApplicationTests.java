@@ -1,10 +1,8 @@
 package mytimeacty;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class MytimeactyApplicationTests {
+class MytimeactyApplicationTests extends AbstractPostgresTest {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,105 @@
+package mytimeacty.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mytimeacty.model.users.dto.UserDTO;
+import mytimeacty.service.JWT.JWTService;
+
+/**
+ * Compares the cold and warm paths of JWTService.getJwtFromToken.
+ *
+ * The cold path is the NimbusJwtDecoder configured as in SecurityConfig: parse, HMAC-SHA256 check and
+ * validator chain. The warm path is a repeated token served from the verified-token cache.
+ * It is not part of the test suite and is run on demand from the test classpath, for example:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=mytimeacty.benchmark.JwtDecodeBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtDecodeBenchmark {
+
+	private static final String SECRET = "benchmark-secret-of-at-least-thirty-two-bytes";
+
+	private JwtDecoder jwtDecoder;
+
+	private JWTService jwtService;
+
+	private String token;
+
+	@Setup
+	public void setUp() {
+		SecretKeySpec secretKey = new SecretKeySpec(SECRET.getBytes(), 0, SECRET.getBytes().length, "HmacSHA256");
+		NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+		decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+				JwtValidators.createDefault(),
+				new JwtTimestampValidator(Duration.ofSeconds(0))
+		));
+		jwtDecoder = decoder;
+
+		jwtService = new JWTService(50000, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(jwtService, "jwtEncoder", new NimbusJwtEncoder(new ImmutableSecret<>(SECRET.getBytes())));
+		ReflectionTestUtils.setField(jwtService, "jwtDecoder", jwtDecoder);
+
+		UserDTO user = UserDTO.builder()
+				.idUser(1)
+				.email("benchmark@mytimeacty.com")
+				.nickname("benchmark")
+				.userRole("user")
+				.build();
+		token = jwtService.generateToken(user, 0);
+		// Fill the cache so that the warm benchmark only measures hits
+		jwtService.getJwtFromToken(token);
+	}
+
+	@Benchmark
+	public Jwt coldDecode() {
+		return jwtDecoder.decode(token);
+	}
+
+	@Benchmark
+	public Jwt warmDecode() {
+		return jwtService.getJwtFromToken(token);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtDecodeBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
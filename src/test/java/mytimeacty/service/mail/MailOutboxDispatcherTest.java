@@ -0,0 +1,135 @@
+package mytimeacty.service.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+
+import jakarta.mail.internet.MimeMessage;
+import mytimeacty.AbstractPostgresTest;
+import mytimeacty.model.mail.MailOutbox;
+import mytimeacty.model.mail.enums.MailOutboxStatus;
+import mytimeacty.repository.MailOutboxRepository;
+
+/**
+ * Drains the mail outbox into an in-JVM SMTP server.
+ */
+class MailOutboxDispatcherTest extends AbstractPostgresTest {
+
+	@Autowired
+	private MailOutboxDispatcher mailOutboxDispatcher;
+
+	@Autowired
+	private MailOutboxRepository mailOutboxRepository;
+
+	private GreenMail smtpServer;
+
+	@BeforeEach
+	void setUp() {
+		mailOutboxRepository.deleteAll();
+		smtpServer = new GreenMail(new ServerSetup(SMTP_PORT, null, ServerSetup.PROTOCOL_SMTP));
+	}
+
+	@AfterEach
+	void tearDown() {
+		smtpServer.stop();
+	}
+
+	@Test
+	void queuedMailIsDelivered() throws Exception {
+		smtpServer.start();
+		MailOutbox mail = mailOutboxRepository.save(pendingMail("alice@mytimeacty.test"));
+
+		mailOutboxDispatcher.drain();
+
+		assertTrue(smtpServer.waitForIncomingEmail(5000, 1));
+		MimeMessage received = smtpServer.getReceivedMessages()[0];
+		assertEquals("Please Verify Your Email", received.getSubject());
+		assertEquals("alice@mytimeacty.test", received.getAllRecipients()[0].toString());
+
+		MailOutbox sent = mailOutboxRepository.findById(mail.getIdMail()).orElseThrow();
+		assertEquals(MailOutboxStatus.SENT, sent.getStatus());
+		assertEquals(1, sent.getAttempts());
+		assertNotNull(sent.getSentAt());
+		assertNull(sent.getInFlightUntil());
+	}
+
+	@Test
+	void failedSendIsRetriedWithBackoff() throws Exception {
+		// The SMTP server is not started yet, so the first attempt is refused
+		MailOutbox mail = mailOutboxRepository.save(pendingMail("bob@mytimeacty.test"));
+
+		Instant before = Instant.now();
+		mailOutboxDispatcher.drain();
+		Instant after = Instant.now();
+
+		MailOutbox failed = mailOutboxRepository.findById(mail.getIdMail()).orElseThrow();
+		assertEquals(MailOutboxStatus.PENDING, failed.getStatus());
+		assertEquals(1, failed.getAttempts());
+		assertNotNull(failed.getLastError());
+		assertNull(failed.getInFlightUntil());
+		// First retry after the base backoff of 30 seconds
+		assertFalse(failed.getNextAttemptAt().isBefore(before.plus(Duration.ofSeconds(30))));
+		assertFalse(failed.getNextAttemptAt().isAfter(after.plus(Duration.ofSeconds(30))));
+
+		// Not due yet: a new drain does not attempt it
+		smtpServer.start();
+		mailOutboxDispatcher.drain();
+		assertEquals(0, smtpServer.getReceivedMessages().length);
+		assertEquals(1, mailOutboxRepository.findById(mail.getIdMail()).orElseThrow().getAttempts());
+
+		// Once the backoff has elapsed, the retry is delivered
+		failed.setNextAttemptAt(Instant.now().minusSeconds(1));
+		mailOutboxRepository.save(failed);
+		mailOutboxDispatcher.drain();
+
+		assertTrue(smtpServer.waitForIncomingEmail(5000, 1));
+		MailOutbox retried = mailOutboxRepository.findById(mail.getIdMail()).orElseThrow();
+		assertEquals(MailOutboxStatus.SENT, retried.getStatus());
+		assertEquals(2, retried.getAttempts());
+		assertNull(retried.getLastError());
+	}
+
+	@Test
+	void deliveredMailsArePrunedAfterRetention() {
+		MailOutbox expired = mailOutboxRepository.save(sentMail("old@mytimeacty.test", Instant.now().minus(Duration.ofDays(8))));
+		MailOutbox recent = mailOutboxRepository.save(sentMail("new@mytimeacty.test", Instant.now().minus(Duration.ofDays(1))));
+		MailOutbox pending = mailOutboxRepository.save(pendingMail("pending@mytimeacty.test"));
+
+		mailOutboxDispatcher.deleteSentMails();
+
+		assertFalse(mailOutboxRepository.existsById(expired.getIdMail()));
+		assertTrue(mailOutboxRepository.existsById(recent.getIdMail()));
+		assertTrue(mailOutboxRepository.existsById(pending.getIdMail()));
+	}
+
+	private static MailOutbox pendingMail(String recipient) {
+		return MailOutbox.builder()
+				.recipient(recipient)
+				.subject("Please Verify Your Email")
+				.body("Thank you for registering.")
+				.status(MailOutboxStatus.PENDING)
+				.attempts(0)
+				.build();
+	}
+
+	private static MailOutbox sentMail(String recipient, Instant sentAt) {
+		MailOutbox mail = pendingMail(recipient);
+		mail.setStatus(MailOutboxStatus.SENT);
+		mail.setAttempts(1);
+		mail.setSentAt(sentAt);
+		return mail;
+	}
+}
@@ -0,0 +1,97 @@
+package mytimeacty.service.quizz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.persistence.EntityManagerFactory;
+import mytimeacty.AbstractPostgresTest;
+import mytimeacty.model.quizzes.dto.QuizzDTO;
+import mytimeacty.model.quizzes.dto.QuizzWithLikeAndFavouriteDTO;
+import mytimeacty.model.users.dto.UserDTO;
+
+/**
+ * Counts the statements run to list a page of quizz cards, which must not depend on the size of the page.
+ */
+class QuizzListingStatementCountTest extends AbstractPostgresTest {
+
+	private static final int PAGE_SIZE = 20;
+
+	private static final AtomicInteger SEED = new AtomicInteger();
+
+	@Autowired
+	private QuizzService quizzService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private int userId;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// More quizzes than a page, each liked and favourited, so every query of the listing runs
+		int seed = SEED.incrementAndGet();
+		userId = jdbcTemplate.queryForObject("INSERT INTO mytimeacty.users "
+				+ "(email, nickname, pwd, user_role, user_previous_role, is_activated, created_at) "
+				+ "VALUES (?, ?, 'pwd', 'user', 'user', true, now()) RETURNING id_user",
+				Integer.class, "listing" + seed + "@mytimeacty.test", "listing" + seed);
+		int categoryId = jdbcTemplate.queryForObject("INSERT INTO mytimeacty.quizz_categories (label) VALUES (?) RETURNING id_category",
+				Integer.class, "category" + seed);
+		int levelId = jdbcTemplate.queryForObject("INSERT INTO mytimeacty.quizz_levels (label) VALUES (?) RETURNING id_level",
+				Integer.class, "level" + seed);
+		for (int i = 0; i < PAGE_SIZE + 5; i++) {
+			int quizzId = jdbcTemplate.queryForObject("INSERT INTO mytimeacty.quizzes "
+					+ "(id_creator, title, id_level, id_category, is_visible, created_at) "
+					+ "VALUES (?, ?, ?, ?, true, now() - make_interval(secs => ?)) RETURNING id_quizz",
+					Integer.class, userId, "Quizz " + i, levelId, categoryId, i);
+			jdbcTemplate.update("INSERT INTO mytimeacty.quizz_likes (id_quizz, id_user) VALUES (?, ?)", quizzId, userId);
+			jdbcTemplate.update("INSERT INTO mytimeacty.quizz_favourites (id_quizz, id_user) VALUES (?, ?)", quizzId, userId);
+		}
+
+		UserDTO principal = UserDTO.builder().idUser(userId).nickname("listing" + seed).userRole("user").build();
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void quizzesPageRunsFourStatements() {
+		Page<QuizzWithLikeAndFavouriteDTO> page = quizzService.getQuizzes(0, PAGE_SIZE, null, null, null, null);
+
+		assertEquals(PAGE_SIZE, page.getNumberOfElements());
+		// Cards, count, liked IDs and favourite IDs
+		assertEquals(4, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void likedQuizzesPageRunsTwoStatements() {
+		Page<QuizzDTO> page = quizzService.getLikedQuizzes(userId, 0, PAGE_SIZE, null, null, null);
+
+		assertEquals(PAGE_SIZE, page.getNumberOfElements());
+		// Cards and count
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+}
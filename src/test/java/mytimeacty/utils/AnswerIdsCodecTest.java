@@ -0,0 +1,75 @@
+package mytimeacty.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round-trips answer IDs through the encoding stored in the answers_encoded column of the plays.
+ */
+class AnswerIdsCodecTest {
+
+	@Test
+	void emptyAnswersRoundTrip() {
+		byte[] encoded = AnswerIdsCodec.encode(new int[0]);
+
+		assertArrayEquals(new byte[] { 0 }, encoded);
+		assertArrayEquals(new int[0], AnswerIdsCodec.decode(encoded));
+	}
+
+	@Test
+	void singleAnswerRoundTrips() {
+		assertRoundTrip(42);
+	}
+
+	@Test
+	void unsortedAnswersAreDecodedSorted() {
+		assertArrayEquals(new int[] { 3, 7, 12, 15 }, AnswerIdsCodec.decode(AnswerIdsCodec.encode(new int[] { 12, 3, 15, 7 })));
+	}
+
+	@Test
+	void consecutiveAnswersTakeOneByteEach() {
+		byte[] encoded = AnswerIdsCodec.encode(new int[] { 101, 102, 103, 104 });
+
+		// The count, then the first ID on two bytes and a one-byte difference for each of the others
+		assertEquals(1 + 2 + 3, encoded.length);
+		assertArrayEquals(new int[] { 101, 102, 103, 104 }, AnswerIdsCodec.decode(encoded));
+	}
+
+	@Test
+	void largeGapsRoundTrip() {
+		assertRoundTrip(1, 128, 16_384, 2_097_152, 268_435_456, 1_000_000_000);
+	}
+
+	@Test
+	void extremeAnswerIdsRoundTrip() {
+		assertRoundTrip(Integer.MAX_VALUE);
+		assertRoundTrip(1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE);
+		assertRoundTrip(Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+	}
+
+	@Test
+	void truncatedAnswersAreRejected() {
+		byte[] encoded = AnswerIdsCodec.encode(new int[] { 5, 300, 70_000 });
+
+		assertThrows(IllegalArgumentException.class, () -> AnswerIdsCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+		assertThrows(IllegalArgumentException.class, () -> AnswerIdsCodec.decode(new byte[0]));
+	}
+
+	@Test
+	void malformedAnswersAreRejected() {
+		byte[] endless = { 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0 };
+
+		assertThrows(IllegalArgumentException.class, () -> AnswerIdsCodec.decode(endless));
+	}
+
+	private static void assertRoundTrip(int... answerIds) {
+		int[] sorted = answerIds.clone();
+		Arrays.sort(sorted);
+		assertArrayEquals(sorted, AnswerIdsCodec.decode(AnswerIdsCodec.encode(answerIds)));
+	}
+}